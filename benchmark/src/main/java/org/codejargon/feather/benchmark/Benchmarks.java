@@ -0,0 +1,22 @@
+package org.codejargon.feather.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with JMH's command line, the GC / allocation profiler is enabled unless profilers are given
+ * explicitly. Eg: java -jar target/benchmarks.jar InstanceBenchmark -p width=32
+ */
+public class Benchmarks {
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-prof") && !arguments.contains("-h") && !arguments.contains("-l")) {
+            arguments.add("-prof");
+            arguments.add("gc");
+        }
+        Main.main(arguments.toArray(new String[arguments.size()]));
+    }
+}
@@ -0,0 +1,79 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Key;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating n handlers (a singleton and two new dependencies each): Provider.get() in a loop versus fill() and
+ * instances().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkInstancesBenchmark {
+    @Param({"1000", "100000"})
+    public int n;
+
+    private Feather feather;
+    private Provider<Handler> provider;
+    private Handler[] target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feather = Feather.with();
+        provider = feather.provider(Handler.class);
+        target = new Handler[n];
+    }
+
+    @Benchmark
+    public Object providerLoop() {
+        for (int i = 0; i < target.length; ++i) {
+            target[i] = provider.get();
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Object fill() {
+        feather.fill(Handler.class, target);
+        return target;
+    }
+
+    @Benchmark
+    public List<Handler> instances() {
+        return feather.instances(Key.of(Handler.class), n);
+    }
+
+    @Singleton
+    public static class Config {
+    }
+
+    public static class Codec {
+    }
+
+    public static class Buffer {
+    }
+
+    public static class Handler {
+        final Config config;
+        final Codec codec;
+        final Buffer buffer;
+
+        @Inject
+        public Handler(Config config, Codec codec, Buffer buffer) {
+            this.config = config;
+            this.codec = codec;
+            this.buffer = buffer;
+        }
+    }
+}
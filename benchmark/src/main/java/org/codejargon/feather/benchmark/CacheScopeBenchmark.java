@@ -0,0 +1,57 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.CacheScope;
+import org.codejargon.feather.Cached;
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a cached instance from several threads, compared to a singleton: without expiry and with
+ * expire-after-access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CacheScopeBenchmark {
+    private Provider<Shared> singleton;
+    private Provider<Table> cached;
+    private Provider<Table> expiring;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        singleton = Feather.with().provider(Shared.class);
+        cached = Feather.builder().scope(Cached.class, CacheScope.builder().maxEntries(16).build()).build().provider(Table.class);
+        expiring = Feather.builder().scope(Cached.class, CacheScope.builder().expireAfterAccess(1, TimeUnit.HOURS).build()).build().provider(Table.class);
+    }
+
+    @Benchmark
+    public Object singleton() {
+        return singleton.get();
+    }
+
+    @Benchmark
+    public Object cached() {
+        return cached.get();
+    }
+
+    @Benchmark
+    public Object expireAfterAccess() {
+        return expiring.get();
+    }
+
+    @Singleton
+    public static class Shared {
+    }
+
+    @Cached
+    public static class Table {
+    }
+}
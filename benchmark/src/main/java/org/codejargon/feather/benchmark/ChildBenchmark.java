@@ -0,0 +1,87 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Provides;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per request injection of a handler depending on a request scoped binding and on application singletons: through a
+ * child of the application injector vs through a new injector of all modules per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChildBenchmark {
+    private final AppModule appModule = new AppModule();
+    private Feather application;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = Feather.with(appModule);
+        application.instance(Repository.class);
+    }
+
+    @Benchmark
+    public Object child() {
+        return application.child(new RequestModule("user")).instance(Handler.class);
+    }
+
+    @Benchmark
+    public Object with() {
+        return Feather.with(appModule, new RequestModule("user")).instance(Handler.class);
+    }
+
+    public static class AppModule {
+        @Provides
+        @Named("url")
+        String url() {
+            return "jdbc:h2:mem:";
+        }
+    }
+
+    public static class RequestModule {
+        private final String user;
+
+        RequestModule(String user) {
+            this.user = user;
+        }
+
+        @Provides
+        @Named("user")
+        String user() {
+            return user;
+        }
+    }
+
+    @Singleton
+    public static class Repository {
+        @Inject
+        public Repository(@Named("url") String url) {
+        }
+    }
+
+    @Singleton
+    public static class Mailer {
+
+    }
+
+    public static class Service {
+        @Inject
+        public Service(Repository repository, Mailer mailer) {
+        }
+    }
+
+    public static class Handler {
+        @Inject
+        public Handler(@Named("user") String user, Service service) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.codejargon.feather.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dagger.Module;
+import dagger.ObjectGraph;
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.benchmark.comparison.*;
+import org.openjdk.jmh.annotations.*;
+import org.picocontainer.DefaultPicoContainer;
+import org.picocontainer.MutablePicoContainer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feather compared to other DI tools, ported from performance-test. Startup creates an injector and instantiates the
+ * dependency graph of A, instance measures instantiating it through an existing injector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparisonBenchmark {
+    private Feather feather;
+    private Injector guice;
+    private ObjectGraph dagger;
+    private MutablePicoContainer pico;
+    private ApplicationContext spring;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feather = Feather.with();
+        guice = Guice.createInjector();
+        dagger = dagger();
+        pico = pico();
+        spring = spring();
+    }
+
+    @Benchmark
+    public Object featherStartup() {
+        return Feather.with().instance(A.class);
+    }
+
+    @Benchmark
+    public Object guiceStartup() {
+        return Guice.createInjector().getInstance(A.class);
+    }
+
+    @Benchmark
+    public Object daggerStartup() {
+        return dagger().get(A.class);
+    }
+
+    @Benchmark
+    public Object picoStartup() {
+        return pico().getComponent(A.class);
+    }
+
+    @Benchmark
+    public Object springStartup() {
+        return spring().getBean(A.class);
+    }
+
+    @Benchmark
+    public Object featherInstance() {
+        return feather.instance(A.class);
+    }
+
+    @Benchmark
+    public Object guiceInstance() {
+        return guice.getInstance(A.class);
+    }
+
+    @Benchmark
+    public Object daggerInstance() {
+        return dagger.get(A.class);
+    }
+
+    @Benchmark
+    public Object picoInstance() {
+        return pico.getComponent(A.class);
+    }
+
+    @Benchmark
+    public Object springInstance() {
+        return spring.getBean(A.class);
+    }
+
+    private static MutablePicoContainer pico() {
+        MutablePicoContainer pico = new DefaultPicoContainer();
+        pico.addComponent(A.class);
+        pico.addComponent(B.class);
+        pico.addComponent(C.class);
+        pico.addComponent(D1.class);
+        pico.addComponent(D2.class);
+        pico.addComponent(E.class);
+        return pico;
+    }
+
+    private static ApplicationContext spring() {
+        return new AnnotationConfigApplicationContext("org.codejargon.feather.benchmark.comparison");
+    }
+
+    private static ObjectGraph dagger() {
+        return ObjectGraph.create(new DaggerModule());
+    }
+
+    @Module(injects = {A.class})
+    public static class DaggerModule {
+        @dagger.Provides
+        E e() {
+            return new E();
+        }
+    }
+}
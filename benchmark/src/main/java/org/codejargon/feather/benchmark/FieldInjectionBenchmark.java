@@ -0,0 +1,47 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady state throughput of Feather.injectFields() and injectAllFields(), each @Inject field of the targets is a level 0
+ * class of the graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldInjectionBenchmark {
+    private Feather feather;
+    private Object target;
+    private List<Object> targets;
+
+    @Setup(Level.Trial)
+    public void setUp(Graph graph) throws ReflectiveOperationException {
+        feather = Feather.with(graph.module());
+        target = graph.fieldTarget.newInstance();
+        targets = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            targets.add(graph.fieldTarget.newInstance());
+        }
+    }
+
+    @Benchmark
+    public Object injectFields() {
+        feather.injectFields(target);
+        return target;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public Object injectAllFields() {
+        feather.injectAllFields(targets);
+        return targets;
+    }
+}
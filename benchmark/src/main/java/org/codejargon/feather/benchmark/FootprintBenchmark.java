@@ -0,0 +1,67 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained per binding by an injector of size bindings, linked (frozen=false) and frozen: the used heap after
+ * garbage collection with the injector alive, minus the used heap before creating it, divided by size. Reported as
+ * the bytesPerBinding secondary result (of a single measurement iteration, as JMH sums such counters over iterations),
+ * the primary one is the time to create and link (or freeze) the injector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 1)
+@Fork(1)
+public class FootprintBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    private Feather feather;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerBinding;
+        private long before;
+
+        @Setup(Level.Iteration)
+        public void before() {
+            before = usedHeap();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        feather = null;
+    }
+
+    @Benchmark
+    public Feather footprint(Footprint footprint) {
+        Feather created = Feather.with(new SyntheticModule(size));
+        if (frozen) {
+            created.freeze();
+        } else {
+            created.validate();
+        }
+        feather = created;
+        footprint.bytesPerBinding = (usedHeap() - footprint.before) / size;
+        return created;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,51 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Key;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of looking up random keys of an injector with size bindings, linked (frozen=false) and frozen. The
+ * footprint of the bindings is measured by FootprintBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreezeBenchmark {
+    private static final int LOOKUPS = 4096;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    private Feather feather;
+    private final Key<?>[] keys = new Key<?>[LOOKUPS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feather = Feather.with(new SyntheticModule(size));
+        if (frozen) {
+            feather.freeze();
+        } else {
+            feather.validate();
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = SyntheticModule.key(random.nextInt(size));
+        }
+    }
+
+    @Benchmark
+    public Object lookup() {
+        next = (next + 1) & (LOOKUPS - 1);
+        return feather.instance(keys[next]);
+    }
+}
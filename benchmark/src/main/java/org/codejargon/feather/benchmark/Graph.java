@@ -0,0 +1,63 @@
+package org.codejargon.feather.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Shape of the generated dependency graph shared by the benchmarks, see GraphGenerator.
+ */
+@State(Scope.Benchmark)
+public class Graph {
+    @Param({"4", "32"})
+    public int width;
+    @Param({"2", "4"})
+    public int depth;
+    /** percentage of classes bound with a qualifier by a @Provides method */
+    @Param({"0", "50"})
+    public int qualified;
+    /** percentage of singleton classes */
+    @Param({"0", "50"})
+    public int singletons;
+
+    public Class<?> root;
+    public Class<?> sharedRoot;
+    public Class<?> fieldTarget;
+    public Class<?> module;
+    private URL classes;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        classes = new GraphGenerator(width, depth, qualified, singletons).compile();
+        ClassLoader classLoader = classLoader();
+        root = classLoader.loadClass(GraphGenerator.PACKAGE + ".Root");
+        sharedRoot = classLoader.loadClass(GraphGenerator.PACKAGE + ".SharedRoot");
+        fieldTarget = classLoader.loadClass(GraphGenerator.PACKAGE + ".FieldTarget");
+        module = classLoader.loadClass(GraphGenerator.PACKAGE + ".GraphModule");
+    }
+
+    /**
+     * @return a new class loader of the graph, its classes are distinct from the ones loaded before
+     */
+    public ClassLoader classLoader() {
+        return new URLClassLoader(new URL[]{classes}, Graph.class.getClassLoader());
+    }
+
+    /**
+     * Loads every class of the graph with the class loader
+     */
+    public void loadClasses(ClassLoader classLoader) throws ClassNotFoundException {
+        for (String name : GraphGenerator.classNames(width, depth)) {
+            classLoader.loadClass(name);
+        }
+    }
+
+    public Object module() {
+        try {
+            return module.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
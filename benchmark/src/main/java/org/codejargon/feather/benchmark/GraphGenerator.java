@@ -0,0 +1,210 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+
+import javax.inject.Inject;
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Generates and compiles a synthetic dependency graph, so the shape of the graph can be a benchmark parameter.
+ * Level 0 has width classes, each depending on two classes of the next level, down to depth levels. A given
+ * percentage of the classes is bound through a @Named @Provides method of the generated module, another is singleton.
+ * Root and the @Singleton SharedRoot depend on every class of level 0, FieldTarget has an @Inject field for each.
+ * Requires a JDK, the classes are compiled with javax.tools.
+ */
+class GraphGenerator {
+    static final String PACKAGE = "generated";
+
+    private final int width;
+    private final int depth;
+    private final boolean[][] qualified;
+    private final boolean[][] singleton;
+
+    GraphGenerator(int width, int depth, int qualifiedPercent, int singletonPercent) {
+        this.width = width;
+        this.depth = depth;
+        this.qualified = new boolean[depth][width];
+        this.singleton = new boolean[depth][width];
+        Random random = new Random(42);
+        for (int level = 0; level < depth; ++level) {
+            for (int index = 0; index < width; ++index) {
+                qualified[level][index] = random.nextInt(100) < qualifiedPercent;
+                singleton[level][index] = random.nextInt(100) < singletonPercent;
+            }
+        }
+    }
+
+    /**
+     * @return location of the compiled classes of the graph
+     */
+    URL compile() throws IOException {
+        return compile(sources());
+    }
+
+    /**
+     * @return location of the compiled classes
+     */
+    static URL compile(List<JavaFileObject> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Generating graphs requires a JDK");
+        }
+        File output = Files.createTempDirectory("feather-benchmark").toFile();
+        output.deleteOnExit();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(output));
+            List<String> options = Arrays.asList("-proc:none", "-classpath", location(Feather.class) + File.pathSeparator + location(Inject.class));
+            if (!compiler.getTask(null, fileManager, diagnostics, options, null, sources).call()) {
+                throw new IllegalStateException("Can't compile generated graph: " + diagnostics.getDiagnostics());
+            }
+        }
+        return output.toURI().toURL();
+    }
+
+    List<JavaFileObject> sources() {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int level = 0; level < depth; ++level) {
+            for (int index = 0; index < width; ++index) {
+                sources.add(source(name(level, index), node(level, index)));
+            }
+        }
+        sources.add(source("Root", root("Root", false)));
+        sources.add(source("SharedRoot", root("SharedRoot", true)));
+        sources.add(source("FieldTarget", fieldTarget()));
+        sources.add(source("GraphModule", module()));
+        return sources;
+    }
+
+    /**
+     * @return binary names of the classes of a graph
+     */
+    static List<String> classNames(int width, int depth) {
+        List<String> names = new ArrayList<>();
+        for (int level = 0; level < depth; ++level) {
+            for (int index = 0; index < width; ++index) {
+                names.add(PACKAGE + "." + name(level, index));
+            }
+        }
+        names.addAll(Arrays.asList(PACKAGE + ".Root", PACKAGE + ".SharedRoot", PACKAGE + ".FieldTarget", PACKAGE + ".GraphModule"));
+        return names;
+    }
+
+    private String node(int level, int index) {
+        StringBuilder source = header();
+        if (singleton[level][index] && !qualified[level][index]) {
+            source.append("@javax.inject.Singleton\n");
+        }
+        String name = name(level, index);
+        source.append("public class ").append(name).append(" {\n");
+        source.append(qualified[level][index] ? "    public " : "    @javax.inject.Inject public ");
+        source.append(name).append("(").append(parameters(dependencies(level, index))).append(") {\n    }\n}\n");
+        return source.toString();
+    }
+
+    private String root(String name, boolean singleton) {
+        StringBuilder source = header();
+        if (singleton) {
+            source.append("@javax.inject.Singleton\n");
+        }
+        source.append("public class ").append(name).append(" {\n");
+        source.append("    @javax.inject.Inject public ").append(name).append("(").append(parameters(level(0))).append(") {\n    }\n}\n");
+        return source.toString();
+    }
+
+    private String fieldTarget() {
+        StringBuilder source = header().append("public class FieldTarget {\n");
+        for (int[] node : level(0)) {
+            source.append("    @javax.inject.Inject ").append(reference(node[0], node[1])).append(" f").append(node[1]).append(";\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String module() {
+        StringBuilder source = header().append("public class GraphModule {\n");
+        for (int level = 0; level < depth; ++level) {
+            for (int index = 0; index < width; ++index) {
+                if (!qualified[level][index]) {
+                    continue;
+                }
+                String name = name(level, index);
+                List<int[]> dependencies = dependencies(level, index);
+                source.append("    @org.codejargon.feather.Provides @javax.inject.Named(\"").append(name).append("\")");
+                source.append(singleton[level][index] ? " @javax.inject.Singleton\n" : "\n");
+                source.append("    public ").append(name).append(" ").append(name.toLowerCase()).append("(").append(parameters(dependencies)).append(") {\n");
+                source.append("        return new ").append(name).append("(");
+                for (int i = 0; i < dependencies.size(); ++i) {
+                    source.append(i == 0 ? "" : ", ").append("p").append(i);
+                }
+                source.append(");\n    }\n");
+            }
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String parameters(List<int[]> dependencies) {
+        StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < dependencies.size(); ++i) {
+            int[] dependency = dependencies.get(i);
+            parameters.append(i == 0 ? "" : ", ").append(reference(dependency[0], dependency[1])).append(" p").append(i);
+        }
+        return parameters.toString();
+    }
+
+    private String reference(int level, int index) {
+        String name = name(level, index);
+        return qualified[level][index] ? "@javax.inject.Named(\"" + name + "\") " + name : name;
+    }
+
+    private List<int[]> dependencies(int level, int index) {
+        if (level + 1 == depth) {
+            return Collections.emptyList();
+        }
+        List<int[]> dependencies = new ArrayList<>();
+        dependencies.add(new int[]{level + 1, index});
+        if (width > 1) {
+            dependencies.add(new int[]{level + 1, (index + 1) % width});
+        }
+        return dependencies;
+    }
+
+    private List<int[]> level(int level) {
+        List<int[]> nodes = new ArrayList<>();
+        for (int index = 0; index < width; ++index) {
+            nodes.add(new int[]{level, index});
+        }
+        return nodes;
+    }
+
+    private static String name(int level, int index) {
+        return "N" + level + "_" + index;
+    }
+
+    static StringBuilder header() {
+        return new StringBuilder("package ").append(PACKAGE).append(";\n\n");
+    }
+
+    static JavaFileObject source(String name, final String source) {
+        return new SimpleJavaFileObject(URI.create("string:///" + PACKAGE + "/" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    private static String location(Class<?> type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Lazy;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instantiating a class with an injected Provider / Lazy of a dependency already linked, and a get() of an
+ * initialized Lazy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndirectInjectionBenchmark {
+    private Provider<WithProvider> withProvider;
+    private Provider<WithLazy> withLazy;
+    private Lazy<Heavy> initialized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Feather feather = Feather.with();
+        feather.provider(Heavy.class);
+        withProvider = feather.provider(WithProvider.class);
+        withLazy = feather.provider(WithLazy.class);
+        initialized = withLazy.get().heavy;
+        initialized.get();
+    }
+
+    @Benchmark
+    public Object injectProvider() {
+        return withProvider.get();
+    }
+
+    @Benchmark
+    public Object injectLazy() {
+        return withLazy.get();
+    }
+
+    @Benchmark
+    public Object initializedLazy() {
+        return initialized.get();
+    }
+
+    public static class Heavy {
+    }
+
+    public static class WithProvider {
+        final Provider<Heavy> heavy;
+
+        @Inject
+        public WithProvider(Provider<Heavy> heavy) {
+            this.heavy = heavy;
+        }
+    }
+
+    public static class WithLazy {
+        final Lazy<Heavy> heavy;
+
+        @Inject
+        public WithLazy(Lazy<Heavy> heavy) {
+            this.heavy = heavy;
+        }
+    }
+}
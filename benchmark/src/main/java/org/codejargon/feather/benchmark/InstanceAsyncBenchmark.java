@@ -0,0 +1,84 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Provides;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of building a root with four independent dependencies, each blocking for a millisecond (eg on I/O), through
+ * instance() and through instanceAsync() on a pool of four threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstanceAsyncBenchmark {
+    private Feather feather;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feather = Feather.with(new BlockingModule());
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Object instance() {
+        return feather.instance(Root.class);
+    }
+
+    @Benchmark
+    public Object instanceAsync() throws Exception {
+        return feather.instanceAsync(Root.class, executor).get();
+    }
+
+    public static class Root {
+        @Inject
+        public Root(@Named("a") String a, @Named("b") String b, @Named("c") String c, @Named("d") String d) {
+        }
+    }
+
+    public static class BlockingModule {
+        @Provides
+        @Named("a")
+        String a() throws InterruptedException {
+            return block();
+        }
+
+        @Provides
+        @Named("b")
+        String b() throws InterruptedException {
+            return block();
+        }
+
+        @Provides
+        @Named("c")
+        String c() throws InterruptedException {
+            return block();
+        }
+
+        @Provides
+        @Named("d")
+        String d() throws InterruptedException {
+            return block();
+        }
+
+        private static String block() throws InterruptedException {
+            Thread.sleep(1);
+            return "";
+        }
+    }
+}
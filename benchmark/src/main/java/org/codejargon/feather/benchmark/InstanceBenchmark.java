@@ -0,0 +1,37 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady state throughput of instantiating the graph through Feather.instance(), optionally through a compiled plan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstanceBenchmark {
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private Feather feather;
+    private Class<?> root;
+
+    @Setup(Level.Trial)
+    public void setUp(Graph graph) {
+        feather = Feather.with(graph.module());
+        root = graph.root;
+        if (compiled) {
+            feather.compile(root);
+        }
+    }
+
+    @Benchmark
+    public Object instance() {
+        return feather.instance(root);
+    }
+}
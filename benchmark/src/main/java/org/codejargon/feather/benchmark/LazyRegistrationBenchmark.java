@@ -0,0 +1,51 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Key;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating an injector from a set of modules and using one of their bindings, with the provider methods
+ * registered eagerly and lazily. Cold: the module classes were never scanned (loaded by a new class loader per
+ * iteration). Warm: the metadata of the modules is cached, the invokers of the bindings are still created per injector.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class LazyRegistrationBenchmark {
+    private static final Key<String> USED = Key.of(String.class, "m0.first");
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    private List<Object> modules;
+
+    @Setup(Level.Iteration)
+    public void load(ModuleSet moduleSet) {
+        modules = moduleSet.instances();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    public Object cold() {
+        return feather().instance(USED);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Object warm() {
+        return feather().instance(USED);
+    }
+
+    private Feather feather() {
+        Feather.Builder builder = Feather.builder().modules(modules);
+        return (lazy ? builder.lazy() : builder).build();
+    }
+}
@@ -0,0 +1,66 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Key;
+import org.codejargon.feather.Provides;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up an initialized singleton through Feather.instance(), by class, by key created per call and by key
+ * created once. Isolates the lookup from instantiation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    private final Key<Service> key = Key.of(Service.class);
+    private Feather feather;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        feather = Feather.with(new Module());
+        feather.instance(Service.class);
+        feather.instance(Key.of(Service.class, "named"));
+    }
+
+    @Benchmark
+    public Object byClass() {
+        return feather.instance(Service.class);
+    }
+
+    @Benchmark
+    public Object byKey() {
+        return feather.instance(Key.of(Service.class));
+    }
+
+    @Benchmark
+    public Object byNamedKey() {
+        return feather.instance(Key.of(Service.class, "named"));
+    }
+
+    @Benchmark
+    public Object byExistingKey() {
+        return feather.instance(key);
+    }
+
+    @Singleton
+    public static class Service {
+
+    }
+
+    public static class Module {
+        @Provides
+        @Named("named")
+        @Singleton
+        Service named() {
+            return new Service();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating an injector and instantiating the graph with the reflection metadata of the graph already cached
+ * (warm), and with the graph loaded by a new class loader per invocation, so every class is scanned again (cold).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataBenchmark {
+    private Object coldModule;
+    private Class<?> coldRoot;
+
+    @Setup(Level.Invocation)
+    public void load(Graph graph) throws ReflectiveOperationException {
+        ClassLoader classLoader = graph.classLoader();
+        coldModule = classLoader.loadClass(graph.module.getName()).newInstance();
+        coldRoot = classLoader.loadClass(graph.root.getName());
+    }
+
+    @Benchmark
+    public Object warm(Graph graph) {
+        return Feather.with(graph.module()).instance(graph.root);
+    }
+
+    @Benchmark
+    public Object cold() {
+        return Feather.with(coldModule).instance(coldRoot);
+    }
+}
@@ -0,0 +1,48 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating an injector from a set of modules whose classes were never scanned (loaded by a new class loader per
+ * iteration), registered serially and in parallel on a pool of a thread per processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ModuleRegistrationBenchmark {
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private ExecutorService executor;
+    private List<Object> modules;
+
+    @Setup(Level.Trial)
+    public void start() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Setup(Level.Iteration)
+    public void load(ModuleSet moduleSet) {
+        modules = moduleSet.instances();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Feather register() {
+        Feather.Builder builder = Feather.builder().modules(modules);
+        return (parallel ? builder.parallel(executor) : builder).build();
+    }
+}
@@ -0,0 +1,69 @@
+package org.codejargon.feather.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.tools.JavaFileObject;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated set of modules: each module M<i> provides three @Named Strings and extends a base class M<i>Base with two
+ * provider methods, one of them overridden by the module. Compiled with javax.tools, requires a JDK.
+ */
+@State(Scope.Benchmark)
+public class ModuleSet {
+    @Param({"10", "100", "1000"})
+    public int modules;
+
+    private URL classes;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int i = 0; i < modules; ++i) {
+            sources.add(GraphGenerator.source("M" + i + "Base", base(i)));
+            sources.add(GraphGenerator.source("M" + i, module(i)));
+        }
+        classes = GraphGenerator.compile(sources);
+    }
+
+    /**
+     * @return new instances of the modules, their classes loaded by a new class loader
+     */
+    public List<Object> instances() {
+        ClassLoader classLoader = new URLClassLoader(new URL[]{classes}, ModuleSet.class.getClassLoader());
+        List<Object> instances = new ArrayList<>(modules);
+        try {
+            for (int i = 0; i < modules; ++i) {
+                instances.add(classLoader.loadClass(GraphGenerator.PACKAGE + ".M" + i).newInstance());
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return instances;
+    }
+
+    private static String base(int i) {
+        return GraphGenerator.header()
+                .append("public class M").append(i).append("Base {\n")
+                .append(provider(i, "base", "\"base\""))
+                .append(provider(i, "overridden", "\"base\""))
+                .append("}\n").toString();
+    }
+
+    private static String module(int i) {
+        return GraphGenerator.header()
+                .append("public class M").append(i).append(" extends M").append(i).append("Base {\n")
+                .append("    @Override\n").append(provider(i, "overridden", "\"module\""))
+                .append(provider(i, "first", "\"first\""))
+                .append(provider(i, "second", "\"second\""))
+                .append("}\n").toString();
+    }
+
+    private static String provider(int i, String name, String value) {
+        return "    @org.codejargon.feather.Provides @javax.inject.Named(\"m" + i + "." + name + "\")\n" +
+                "    public String " + name + "() {\n        return " + value + ";\n    }\n";
+    }
+}
@@ -0,0 +1,55 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.PoolScope;
+import org.codejargon.feather.Pooled;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Provider;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Using a non-thread-safe instance with a large buffer: created on each use versus leased from a PoolScope.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PooledBenchmark {
+    private Provider<Codec> unpooled;
+    private PoolScope.Pool<PooledCodec> pooled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Feather feather = Feather.builder().scope(Pooled.class, new PoolScope(64)).build();
+        unpooled = feather.provider(Codec.class);
+        pooled = PoolScope.pool(feather.provider(PooledCodec.class));
+    }
+
+    @Benchmark
+    public int unpooled() {
+        return unpooled.get().encode(42);
+    }
+
+    @Benchmark
+    public int pooled() {
+        try (PoolScope.Lease<PooledCodec> codec = pooled.lease()) {
+            return codec.get().encode(42);
+        }
+    }
+
+    public static class Codec {
+        private final byte[] buffer = new byte[4096];
+
+        int encode(int value) {
+            buffer[value] = (byte) value;
+            return buffer[value];
+        }
+    }
+
+    @Pooled
+    public static class PooledCodec extends Codec {
+    }
+}
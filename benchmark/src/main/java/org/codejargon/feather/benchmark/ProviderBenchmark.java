@@ -0,0 +1,30 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Provider;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady state throughput of instantiating the graph through a Provider obtained once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderBenchmark {
+    private Provider<?> provider;
+
+    @Setup(Level.Trial)
+    public void setUp(Graph graph) {
+        provider = Feather.with(graph.module()).provider(graph.root);
+    }
+
+    @Benchmark
+    public Object get() {
+        return provider.get();
+    }
+}
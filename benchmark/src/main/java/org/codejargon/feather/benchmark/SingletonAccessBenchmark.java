@@ -0,0 +1,42 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import javax.inject.Provider;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of accessing an initialized singleton from several threads, through Feather.instance() and through a
+ * Provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SingletonAccessBenchmark {
+    private Feather feather;
+    private Class<?> sharedRoot;
+    private Provider<?> provider;
+
+    @Setup(Level.Trial)
+    public void setUp(Graph graph) {
+        feather = Feather.with(graph.module());
+        sharedRoot = graph.sharedRoot;
+        provider = feather.provider(sharedRoot);
+        provider.get();
+    }
+
+    @Benchmark
+    public Object instance() {
+        return feather.instance(sharedRoot);
+    }
+
+    @Benchmark
+    public Object provider() {
+        return provider.get();
+    }
+}
@@ -0,0 +1,26 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating an injector, and of creating one and instantiating the graph through it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StartupBenchmark {
+    @Benchmark
+    public Feather with(Graph graph) {
+        return Feather.with(graph.module());
+    }
+
+    @Benchmark
+    public Object withAndInstance(Graph graph) {
+        return Feather.with(graph.module()).instance(graph.root);
+    }
+}
@@ -0,0 +1,65 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.StartupIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start with and without a StartupIndex: the first injector of a fresh JVM (one per fork) instantiating the graph
+ * and injecting the fields of FieldTarget. The index is written by the setup of each fork, through classes of
+ * another class loader, so the measured classes are scanned (or looked up in the index) for the first time. The setup
+ * runs the same graph without an index too, so Feather's own classes are equally warm, and loads the measured classes,
+ * class loading isn't affected by the index. Eg:
+ * java -jar target/benchmarks.jar StartupIndexBenchmark -p width=32 -p depth=4 -p qualified=50 -p singletons=0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupIndexBenchmark {
+    @Param({"false", "true"})
+    public boolean index;
+
+    private Object module;
+    private Class<?> root;
+    private Class<?> fieldTarget;
+
+    @Setup(Level.Trial)
+    public void setUp(Graph graph) throws Exception {
+        File file = File.createTempFile("feather", ".index");
+        file.deleteOnExit();
+        if (index) {
+            StartupIndex.load(new File(file.getPath() + ".missing"));
+        }
+        run(graph.classLoader(), graph);
+        if (index) {
+            StartupIndex.save(file);
+            StartupIndex.load(file);
+        }
+        ClassLoader classLoader = graph.classLoader();
+        graph.loadClasses(classLoader);
+        module = classLoader.loadClass(graph.module.getName()).newInstance();
+        root = classLoader.loadClass(graph.root.getName());
+        fieldTarget = classLoader.loadClass(graph.fieldTarget.getName());
+    }
+
+    @Benchmark
+    public Object cold() throws ReflectiveOperationException {
+        Feather feather = Feather.with(module);
+        Object target = fieldTarget.newInstance();
+        feather.injectFields(target);
+        return feather.instance(root);
+    }
+
+    private static void run(ClassLoader classLoader, Graph graph) throws ReflectiveOperationException, IOException {
+        Feather feather = Feather.with(classLoader.loadClass(graph.module.getName()).newInstance());
+        feather.injectFields(classLoader.loadClass(graph.fieldTarget.getName()).newInstance());
+        feather.instance(classLoader.loadClass(graph.root.getName()));
+    }
+}
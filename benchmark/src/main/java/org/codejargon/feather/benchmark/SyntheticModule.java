@@ -0,0 +1,20 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Key;
+
+/**
+ * Module of any number of independent @Named("binding<i>") Object bindings, provided by its hand-written
+ * SyntheticModule_FeatherModule, as a module with that many @Provides methods can't be compiled.
+ */
+public class SyntheticModule {
+    final int size;
+    final Object value = new Object();
+
+    public SyntheticModule(int size) {
+        this.size = size;
+    }
+
+    public static Key<Object> key(int index) {
+        return Key.of(Object.class, "binding" + index);
+    }
+}
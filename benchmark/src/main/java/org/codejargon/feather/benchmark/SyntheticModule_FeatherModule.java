@@ -0,0 +1,50 @@
+package org.codejargon.feather.benchmark;
+
+import org.codejargon.feather.Factory;
+import org.codejargon.feather.Key;
+import org.codejargon.feather.ModuleFactory;
+
+import javax.inject.Provider;
+
+/**
+ * Factories of SyntheticModule, in place of the ones feather-compiler generates for @Provides methods.
+ */
+public class SyntheticModule_FeatherModule implements ModuleFactory<SyntheticModule> {
+    private static final Key<?>[] NO_DEPENDENCIES = new Key<?>[0];
+    private static final boolean[] NO_PROVIDERS = new boolean[0];
+
+    @Override
+    public Factory<?>[] factories(final SyntheticModule module) {
+        Factory<?>[] factories = new Factory<?>[module.size];
+        for (int i = 0; i < factories.length; ++i) {
+            final Key<Object> key = SyntheticModule.key(i);
+            factories[i] = new Factory<Object>() {
+                @Override
+                public Key<Object> key() {
+                    return key;
+                }
+
+                @Override
+                public boolean singleton() {
+                    return false;
+                }
+
+                @Override
+                public Key<?>[] dependencies() {
+                    return NO_DEPENDENCIES;
+                }
+
+                @Override
+                public boolean[] providers() {
+                    return NO_PROVIDERS;
+                }
+
+                @Override
+                public Object create(Provider<?>[] arguments) {
+                    return module.value;
+                }
+            };
+        }
+        return factories;
+    }
+}
@@ -0,0 +1,25 @@
+package org.codejargon.feather.compiler;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.TypeMirror;
+import java.util.List;
+
+/**
+ * A binding declared by an @Inject / no-arg constructor or by a @Provides method.
+ */
+class Binding {
+    final ExecutableElement executable;
+    final TypeMirror type;
+    final AnnotationMirror qualifier;
+    final boolean singleton;
+    final List<Dependency> dependencies;
+
+    Binding(ExecutableElement executable, TypeMirror type, AnnotationMirror qualifier, boolean singleton, List<Dependency> dependencies) {
+        this.executable = executable;
+        this.type = type;
+        this.qualifier = qualifier;
+        this.singleton = singleton;
+        this.dependencies = dependencies;
+    }
+}
@@ -0,0 +1,29 @@
+package org.codejargon.feather.compiler;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A constructor / @Provides method parameter or an @Inject field.
+ */
+class Dependency {
+    final VariableElement element;
+    final TypeMirror type;
+    final TypeMirror keyType;
+    final AnnotationMirror qualifier;
+    /**
+     * Injected as a Provider or a Lazy
+     */
+    final boolean provider;
+    final boolean lazy;
+
+    Dependency(VariableElement element, TypeMirror type, TypeMirror keyType, AnnotationMirror qualifier, boolean provider, boolean lazy) {
+        this.element = element;
+        this.type = type;
+        this.keyType = keyType;
+        this.qualifier = qualifier;
+        this.provider = provider;
+        this.lazy = lazy;
+    }
+}
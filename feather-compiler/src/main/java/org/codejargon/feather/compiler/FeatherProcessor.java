@@ -0,0 +1,187 @@
+package org.codejargon.feather.compiler;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates reflection-free factories for classes with an @Inject constructor (and for the no-arg classes they
+ * depend on), for modules with @Provides methods and for classes with @Inject fields. Feather falls back to reflection
+ * for anything without a generated factory - eg classes or members not accessible from their own package, modules
+ * with provider methods annotated with a custom scope, or Lazy dependencies.
+ * Circular dependencies are reported as compile errors. Missing bindings are reported as warnings, as modules may be
+ * compiled separately or come from a jar; option feather.lenient=false turns them into errors.
+ */
+@SupportedOptions(FeatherProcessor.LENIENT)
+public class FeatherProcessor extends AbstractProcessor {
+    static final String LENIENT = "feather.lenient";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(Model.INJECT, Model.PROVIDES));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Model model = new Model(processingEnv);
+        Graph graph = new Graph(model, processingEnv.getMessager(), !"false".equalsIgnoreCase(processingEnv.getOptions().get(LENIENT)));
+        Set<TypeElement> injectClasses = new LinkedHashSet<>();
+        Set<TypeElement> fieldClasses = new LinkedHashSet<>();
+        Set<TypeElement> modules = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement enclosing = (TypeElement) element.getEnclosingElement();
+                if (element.getKind() == ElementKind.CONSTRUCTOR) {
+                    injectClasses.add(enclosing);
+                } else if (element.getKind() == ElementKind.FIELD) {
+                    fieldClasses.add(enclosing);
+                } else if (element.getKind() == ElementKind.METHOD && annotation.getQualifiedName().contentEquals(Model.PROVIDES)) {
+                    modules.add(enclosing);
+                }
+            }
+        }
+        Map<TypeElement, List<Binding>> moduleBindings = new LinkedHashMap<>();
+        for (TypeElement module : modules) {
+            moduleBindings.put(module, graph.module(module));
+        }
+        for (List<Binding> bindings : moduleBindings.values()) {
+            for (Binding binding : bindings) {
+                graph.validate(binding);
+            }
+        }
+        Map<TypeElement, Binding> classBindings = new LinkedHashMap<>();
+        for (TypeElement type : injectClasses) {
+            Binding binding = graph.constructed(type);
+            if (binding != null) {
+                classBindings.put(type, binding);
+                graph.validate(binding);
+            }
+        }
+        Map<TypeElement, List<Dependency>> fields = new LinkedHashMap<>();
+        for (TypeElement type : fieldClasses) {
+            fields.put(type, model.dependencies(model.injectFields(type)));
+            graph.validateFields(fields.get(type));
+        }
+        Set<Element> sources = sources(roundEnv);
+        for (TypeElement type : graph.noargClasses()) {
+            if (sources.contains(type)) {
+                classBindings.put(type, graph.constructed(type));
+            }
+        }
+        generate(model, classBindings, moduleBindings, fields);
+        return false;
+    }
+
+    private void generate(Model model, Map<TypeElement, Binding> classBindings, Map<TypeElement, List<Binding>> moduleBindings, Map<TypeElement, List<Dependency>> fields) {
+        SourceWriter writer = new SourceWriter(model);
+        for (Map.Entry<TypeElement, Binding> binding : classBindings.entrySet()) {
+            TypeElement type = binding.getKey();
+            if (constructible(model, type, binding.getValue())) {
+                write(model.generatedName(type, "_FeatherFactory"), writer.factory(type, binding.getValue()), type);
+            }
+        }
+        for (Map.Entry<TypeElement, List<Binding>> module : moduleBindings.entrySet()) {
+            if (callable(model, module.getKey(), module.getValue())) {
+                write(model.generatedName(module.getKey(), "_FeatherModule"), writer.module(module.getKey(), module.getValue()), module.getKey());
+            }
+        }
+        for (Map.Entry<TypeElement, List<Dependency>> target : fields.entrySet()) {
+            if (assignable(model, target.getKey(), target.getValue())) {
+                write(model.generatedName(target.getKey(), "_FeatherInjector"), writer.fieldInjector(target.getKey(), target.getValue()), target.getKey());
+            }
+        }
+    }
+
+    private void write(String name, String source, TypeElement origin) {
+        if (!generated.add(name)) {
+            return;
+        }
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, origin).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Can't write %s: %s", name, e.getMessage()), origin);
+        }
+    }
+
+    private static boolean constructible(Model model, TypeElement type, Binding binding) {
+        PackageElement from = model.elements.getPackageOf(type);
+        return topLevelOrStatic(type) &&
+                type.getTypeParameters().isEmpty() &&
+                model.accessible(binding.executable, from) &&
+                accessible(model, binding.dependencies, from);
+    }
+
+    private static boolean callable(Model model, TypeElement module, List<Binding> bindings) {
+        PackageElement from = model.elements.getPackageOf(module);
+        if (!module.getTypeParameters().isEmpty() || !model.accessible(module, from)) {
+            return false;
+        }
+        for (Binding binding : bindings) {
+            if (binding.executable.getModifiers().contains(Modifier.STATIC) ||
+                    model.scoped(binding.executable) ||
+                    !binding.executable.getTypeParameters().isEmpty() ||
+                    !model.accessible(binding.executable, from) ||
+                    !model.accessible(binding.type, from) ||
+                    (binding.qualifier != null && !model.accessible(binding.qualifier.getAnnotationType(), from)) ||
+                    !accessible(model, binding.dependencies, from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean assignable(Model model, TypeElement type, List<Dependency> fields) {
+        PackageElement from = model.elements.getPackageOf(type);
+        if (!type.getTypeParameters().isEmpty() || !model.accessible(type, from)) {
+            return false;
+        }
+        for (Dependency field : fields) {
+            Set<Modifier> modifiers = field.element.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL) || !model.accessible(field.element, from)) {
+                return false;
+            }
+        }
+        return accessible(model, fields, from);
+    }
+
+    private static boolean accessible(Model model, List<Dependency> dependencies, PackageElement from) {
+        for (Dependency dependency : dependencies) {
+            if (dependency.keyType == null ||
+                    dependency.lazy ||
+                    !model.accessible(dependency.type, from) ||
+                    !model.accessible(dependency.keyType, from) ||
+                    (dependency.qualifier != null && !model.accessible(dependency.qualifier.getAnnotationType(), from))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean topLevelOrStatic(TypeElement type) {
+        return !(type.getEnclosingElement() instanceof TypeElement) || type.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private static Set<Element> sources(RoundEnvironment roundEnv) {
+        Set<Element> sources = new HashSet<>();
+        Deque<Element> elements = new ArrayDeque<Element>(roundEnv.getRootElements());
+        while (!elements.isEmpty()) {
+            Element element = elements.pop();
+            if (sources.add(element)) {
+                elements.addAll(ElementFilter.typesIn(element.getEnclosedElements()));
+            }
+        }
+        return sources;
+    }
+}
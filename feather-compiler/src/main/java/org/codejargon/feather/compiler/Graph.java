@@ -0,0 +1,151 @@
+package org.codejargon.feather.compiler;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.util.*;
+
+/**
+ * Dependency graph of a compilation round: reports missing bindings and circular dependencies the way Feather does at
+ * run time. Keys provided by the modules of the round are assumed to be available to every injection point.
+ */
+class Graph {
+    static final String FEATHER = "org.codejargon.feather.Feather";
+
+    private final Model model;
+    private final Messager messager;
+    private final Diagnostic.Kind missingBinding;
+    private final Map<String, Binding> provided = new HashMap<>();
+    private final Map<String, Binding> constructed = new HashMap<>();
+    private final Set<String> validated = new HashSet<>();
+    private final Set<TypeElement> noargClasses = new LinkedHashSet<>();
+
+    Graph(Model model, Messager messager, boolean lenient) {
+        this.model = model;
+        this.messager = messager;
+        this.missingBinding = lenient ? Diagnostic.Kind.WARNING : Diagnostic.Kind.ERROR;
+    }
+
+    /**
+     * Registers the bindings of a module, reporting keys provided more than once
+     */
+    List<Binding> module(TypeElement module) {
+        List<Binding> bindings = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (ExecutableElement method : model.providerMethods(module)) {
+            Binding binding = model.providerBinding(method);
+            String key = model.key(binding.type, binding.qualifier);
+            if (!keys.add(key)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, String.format("%s has multiple providers, module %s", key, module.getQualifiedName()), method);
+            }
+            if (!provided.containsKey(key)) {
+                provided.put(key, binding);
+            }
+            bindings.add(binding);
+        }
+        return bindings;
+    }
+
+    /**
+     * @return binding of the class through its @Inject or no-arg constructor, null if there's none
+     */
+    Binding constructed(TypeElement type) {
+        String key = model.binaryName(type.asType());
+        if (!constructed.containsKey(key)) {
+            Binding binding = null;
+            if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+                if (model.injectConstructors(type) > 1) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, String.format("%s has multiple @Inject constructors", key), type);
+                }
+                ExecutableElement constructor = model.constructor(type);
+                if (constructor != null) {
+                    binding = model.constructorBinding(type, constructor);
+                    if (!model.annotated(constructor, Model.INJECT)) {
+                        noargClasses.add(type);
+                    }
+                }
+            }
+            constructed.put(key, binding);
+        }
+        return constructed.get(key);
+    }
+
+    /**
+     * Reports missing bindings and circular dependencies reachable from the binding
+     */
+    void validate(Binding binding) {
+        validate(binding, model.key(binding.type, binding.qualifier), new LinkedHashSet<String>());
+    }
+
+    /**
+     * Reports missing bindings of injected fields and circular dependencies reachable from them
+     */
+    void validateFields(List<Dependency> fields) {
+        for (Dependency field : fields) {
+            Binding binding = resolve(field);
+            if (binding != null) {
+                validate(binding, model.key(field.keyType, field.qualifier), new LinkedHashSet<String>());
+            }
+        }
+    }
+
+    /**
+     * @return classes resolved through their no-arg constructor
+     */
+    Set<TypeElement> noargClasses() {
+        return noargClasses;
+    }
+
+    private void validate(Binding binding, String key, LinkedHashSet<String> chain) {
+        if (validated.contains(key)) {
+            return;
+        }
+        chain.add(key);
+        for (Dependency dependency : binding.dependencies) {
+            Binding resolved = resolve(dependency);
+            if (resolved == null || dependency.provider) {
+                continue;
+            }
+            String dependencyKey = model.key(dependency.keyType, dependency.qualifier);
+            if (chain.contains(dependencyKey)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, String.format("Circular dependency: %s", chain(chain, dependencyKey)), dependency.element);
+                validated.addAll(chain);
+            } else {
+                validate(resolved, dependencyKey, chain);
+            }
+        }
+        chain.remove(key);
+        validated.add(key);
+    }
+
+    private Binding resolve(Dependency dependency) {
+        if (dependency.keyType == null) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Provider must have a class type argument", dependency.element);
+            return null;
+        }
+        String key = model.key(dependency.keyType, dependency.qualifier);
+        if (provided.containsKey(key)) {
+            return provided.get(key);
+        }
+        TypeMirror type = dependency.keyType;
+        Binding binding = type.getKind() == TypeKind.DECLARED ? constructed((TypeElement) model.types.asElement(type)) : null;
+        if (binding == null && !model.binaryName(type).equals(FEATHER)) {
+            messager.printMessage(
+                    missingBinding,
+                    String.format("%s doesn't have an @Inject or no-arg constructor, or a module provider", key),
+                    dependency.element
+            );
+        }
+        return binding;
+    }
+
+    private static String chain(Set<String> chain, String lastKey) {
+        StringBuilder chainString = new StringBuilder();
+        for (String key : chain) {
+            chainString.append(key).append(" -> ");
+        }
+        return chainString.append(lastKey).toString();
+    }
+}
@@ -0,0 +1,281 @@
+package org.codejargon.feather.compiler;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads bindings from the language model, the compile time counterpart of Feather's reflection.
+ */
+class Model {
+    static final String INJECT = "javax.inject.Inject";
+    static final String PROVIDES = "org.codejargon.feather.Provides";
+    static final String SINGLETON = "javax.inject.Singleton";
+    static final String SCOPE = "javax.inject.Scope";
+    static final String QUALIFIER = "javax.inject.Qualifier";
+    static final String NAMED = "javax.inject.Named";
+    static final String PROVIDER = "javax.inject.Provider";
+    static final String LAZY = "org.codejargon.feather.Lazy";
+
+    final Elements elements;
+    final Types types;
+
+    Model(ProcessingEnvironment env) {
+        this.elements = env.getElementUtils();
+        this.types = env.getTypeUtils();
+    }
+
+    Binding constructorBinding(TypeElement type, ExecutableElement constructor) {
+        return new Binding(
+                constructor,
+                types.erasure(type.asType()),
+                null,
+                annotated(type, SINGLETON),
+                dependencies(constructor.getParameters())
+        );
+    }
+
+    Binding providerBinding(ExecutableElement method) {
+        return new Binding(
+                method,
+                types.erasure(method.getReturnType()),
+                qualifier(method),
+                annotated(method, SINGLETON) || annotated(types.asElement(method.getReturnType()), SINGLETON),
+                dependencies(method.getParameters())
+        );
+    }
+
+    List<Dependency> dependencies(List<? extends VariableElement> variables) {
+        List<Dependency> dependencies = new ArrayList<>();
+        for (VariableElement variable : variables) {
+            dependencies.add(dependency(variable));
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return the dependency, with null keyType if it's a Provider or Lazy without a class type argument
+     */
+    Dependency dependency(VariableElement variable) {
+        TypeMirror type = variable.asType();
+        boolean lazy = type.getKind() == TypeKind.DECLARED && named(types.asElement(type), LAZY);
+        boolean provider = lazy || (type.getKind() == TypeKind.DECLARED && named(types.asElement(type), PROVIDER));
+        TypeMirror keyType = types.erasure(type);
+        if (provider) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            keyType = arguments.size() == 1 && arguments.get(0).getKind() == TypeKind.DECLARED ?
+                    types.erasure(arguments.get(0)) :
+                    null;
+        }
+        return new Dependency(variable, type, keyType, qualifier(variable), provider, lazy);
+    }
+
+    /**
+     * @return the @Inject constructor, or the no-arg constructor if there's no @Inject one
+     */
+    ExecutableElement constructor(TypeElement type) {
+        ExecutableElement inject = null;
+        ExecutableElement noarg = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (annotated(constructor, INJECT)) {
+                inject = inject == null ? constructor : inject;
+            } else if (constructor.getParameters().isEmpty()) {
+                noarg = constructor;
+            }
+        }
+        return inject != null ? inject : noarg;
+    }
+
+    int injectConstructors(TypeElement type) {
+        int count = 0;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (annotated(constructor, INJECT)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return @Provides methods of a module and its superclasses, overridden methods excluded
+     */
+    List<ExecutableElement> providerMethods(TypeElement module) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (TypeElement current = module; current != null; current = superclass(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (annotated(method, PROVIDES) && !overridden(method, methods, module)) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * @return @Inject fields of a class and its superclasses
+     */
+    List<VariableElement> injectFields(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclass(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (annotated(field, INJECT)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) types.asElement(superclass);
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    AnnotationMirror qualifier(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotated(annotation.getAnnotationType().asElement(), QUALIFIER)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return key in the format of Key.toString(), used for identifying and reporting bindings
+     */
+    String key(TypeMirror type, AnnotationMirror qualifier) {
+        String suffix = "";
+        if (qualifier != null) {
+            suffix = named(qualifier.getAnnotationType().asElement(), NAMED) ?
+                    "@\"" + namedValue(qualifier) + "\"" :
+                    "@" + qualifier.getAnnotationType().asElement().getSimpleName();
+        }
+        return binaryName(type) + suffix;
+    }
+
+    /**
+     * @return source of a Key expression
+     */
+    String keyLiteral(TypeMirror type, AnnotationMirror qualifier) {
+        String classLiteral = types.erasure(type).toString() + ".class";
+        if (qualifier == null) {
+            return "org.codejargon.feather.Key.of(" + classLiteral + ")";
+        } else if (named(qualifier.getAnnotationType().asElement(), NAMED)) {
+            return "org.codejargon.feather.Key.of(" + classLiteral + ", " + elements.getConstantExpression(namedValue(qualifier)) + ")";
+        } else {
+            return "org.codejargon.feather.Key.of(" + classLiteral + ", " + types.erasure(qualifier.getAnnotationType()) + ".class)";
+        }
+    }
+
+    /**
+     * @return source of a type usable as a type argument or cast
+     */
+    String reference(TypeMirror type) {
+        return type.getKind().isPrimitive() ?
+                types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString() :
+                types.erasure(type).toString();
+    }
+
+    String binaryName(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ?
+                elements.getBinaryName((TypeElement) types.asElement(type)).toString() :
+                types.erasure(type).toString();
+    }
+
+    /**
+     * @return the name Feather looks up for a generated class, in the package of the target type: '_' doubled and '$'
+     * replaced by "_0" in the binary name, so nested and top-level classes don't collide
+     */
+    String generatedName(TypeElement type, String suffix) {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace("_", "__").replace("$", "_0");
+        return packageName.isEmpty() ? simpleName + suffix : packageName + "." + simpleName + suffix;
+    }
+
+    boolean accessible(TypeMirror type, PackageElement from) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return accessible(((ArrayType) type).getComponentType(), from);
+            case DECLARED:
+                return accessible(types.asElement(type), from);
+            default:
+                return type.getKind().isPrimitive();
+        }
+    }
+
+    /**
+     * @return whether a type or member is accessible from code in the package
+     */
+    boolean accessible(Element element, PackageElement from) {
+        for (Element current = element; current instanceof TypeElement || current instanceof ExecutableElement || current instanceof VariableElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!current.getModifiers().contains(Modifier.PUBLIC) && !elements.getPackageOf(current).equals(from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean annotated(Element element, String annotation) {
+        if (element == null) {
+            return false;
+        }
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (named(mirror.getAnnotationType().asElement(), annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the element has a scope annotation other than @Singleton
+     */
+    boolean scoped(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            Element annotationType = mirror.getAnnotationType().asElement();
+            if (annotated(annotationType, SCOPE) && !named(annotationType, SINGLETON)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean overridden(ExecutableElement method, List<ExecutableElement> discovered, TypeElement module) {
+        for (ExecutableElement subClassMethod : discovered) {
+            if (elements.overrides(subClassMethod, method, module)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean named(Element element, String name) {
+        return element instanceof TypeElement && ((TypeElement) element).getQualifiedName().contentEquals(name);
+    }
+
+    private static String namedValue(AnnotationMirror named) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : named.getElementValues().entrySet()) {
+            if (value.getKey().getSimpleName().contentEquals("value")) {
+                return (String) value.getValue().getValue();
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,135 @@
+package org.codejargon.feather.compiler;
+
+import javax.lang.model.element.*;
+import java.util.List;
+
+/**
+ * Writes the sources of generated factories. Names are fully qualified, generated classes have no imports.
+ */
+class SourceWriter {
+    private static final String HEADER = "// Generated by feather-compiler, do not edit\n";
+    private static final String SUPPRESS = "@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n";
+
+    private final Model model;
+
+    SourceWriter(Model model) {
+        this.model = model;
+    }
+
+    String factory(TypeElement type, Binding binding) {
+        String name = model.generatedName(type, "_FeatherFactory");
+        String typeReference = model.reference(binding.type);
+        StringBuilder source = new StringBuilder(HEADER);
+        packageDeclaration(source, type);
+        source.append(SUPPRESS)
+                .append("public final class ").append(simpleName(name))
+                .append(" implements org.codejargon.feather.Factory<").append(typeReference).append("> {\n");
+        factoryMethods(source, binding, "    ");
+        source.append("    @Override\n")
+                .append("    public ").append(typeReference).append(" create(javax.inject.Provider<?>[] arguments) {\n")
+                .append("        return new ").append(typeReference).append("(").append(arguments(binding.dependencies, "arguments")).append(");\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    String module(TypeElement module, List<Binding> bindings) {
+        String name = model.generatedName(module, "_FeatherModule");
+        String moduleReference = model.reference(module.asType());
+        StringBuilder source = new StringBuilder(HEADER);
+        packageDeclaration(source, module);
+        source.append(SUPPRESS)
+                .append("public final class ").append(simpleName(name))
+                .append(" implements org.codejargon.feather.ModuleFactory<").append(moduleReference).append("> {\n")
+                .append("    @Override\n")
+                .append("    public org.codejargon.feather.Factory<?>[] factories(final ").append(moduleReference).append(" module) {\n")
+                .append("        return new org.codejargon.feather.Factory<?>[]{\n");
+        for (int i = 0; i < bindings.size(); ++i) {
+            Binding binding = bindings.get(i);
+            String typeReference = model.reference(binding.type);
+            source.append("                new org.codejargon.feather.Factory<").append(typeReference).append(">() {\n");
+            factoryMethods(source, binding, "                    ");
+            source.append("                    @Override\n")
+                    .append("                    public ").append(typeReference).append(" create(javax.inject.Provider<?>[] arguments) {\n")
+                    .append("                        return module.").append(binding.executable.getSimpleName())
+                    .append("(").append(arguments(binding.dependencies, "arguments")).append(");\n")
+                    .append("                    }\n")
+                    .append("                }").append(i < bindings.size() - 1 ? "," : "").append("\n");
+        }
+        source.append("        };\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    String fieldInjector(TypeElement type, List<Dependency> fields) {
+        String name = model.generatedName(type, "_FeatherInjector");
+        String typeReference = model.reference(type.asType());
+        StringBuilder source = new StringBuilder(HEADER);
+        packageDeclaration(source, type);
+        source.append(SUPPRESS)
+                .append("public final class ").append(simpleName(name))
+                .append(" implements org.codejargon.feather.FieldInjector<").append(typeReference).append("> {\n");
+        dependencyMethods(source, fields, "    ");
+        source.append("    @Override\n")
+                .append("    public void inject(").append(typeReference).append(" target, javax.inject.Provider<?>[] values) {\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            VariableElement field = fields.get(i).element;
+            source.append("        ((").append(model.reference(field.getEnclosingElement().asType())).append(") target).")
+                    .append(field.getSimpleName()).append(" = (").append(model.reference(field.asType())).append(") values[").append(i).append("].get();\n");
+        }
+        source.append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private void factoryMethods(StringBuilder source, Binding binding, String indent) {
+        source.append(indent).append("@Override\n")
+                .append(indent).append("public org.codejargon.feather.Key<").append(model.reference(binding.type)).append("> key() {\n")
+                .append(indent).append("    return ").append(model.keyLiteral(binding.type, binding.qualifier)).append(";\n")
+                .append(indent).append("}\n")
+                .append(indent).append("@Override\n")
+                .append(indent).append("public boolean singleton() {\n")
+                .append(indent).append("    return ").append(binding.singleton).append(";\n")
+                .append(indent).append("}\n");
+        dependencyMethods(source, binding.dependencies, indent);
+    }
+
+    private void dependencyMethods(StringBuilder source, List<Dependency> dependencies, String indent) {
+        StringBuilder keys = new StringBuilder();
+        StringBuilder providers = new StringBuilder();
+        for (Dependency dependency : dependencies) {
+            keys.append(keys.length() > 0 ? ", " : "").append(model.keyLiteral(dependency.keyType, dependency.qualifier));
+            providers.append(providers.length() > 0 ? ", " : "").append(dependency.provider);
+        }
+        source.append(indent).append("@Override\n")
+                .append(indent).append("public org.codejargon.feather.Key<?>[] dependencies() {\n")
+                .append(indent).append("    return new org.codejargon.feather.Key<?>[]{").append(keys).append("};\n")
+                .append(indent).append("}\n")
+                .append(indent).append("@Override\n")
+                .append(indent).append("public boolean[] providers() {\n")
+                .append(indent).append("    return new boolean[]{").append(providers).append("};\n")
+                .append(indent).append("}\n");
+    }
+
+    private String arguments(List<Dependency> dependencies, String array) {
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < dependencies.size(); ++i) {
+            arguments.append(i > 0 ? ", " : "")
+                    .append("(").append(model.reference(dependencies.get(i).type)).append(") ")
+                    .append(array).append("[").append(i).append("].get()");
+        }
+        return arguments.toString();
+    }
+
+    private void packageDeclaration(StringBuilder source, TypeElement type) {
+        PackageElement packageElement = model.elements.getPackageOf(type);
+        if (!packageElement.isUnnamed()) {
+            source.append("package ").append(packageElement.getQualifiedName()).append(";\n\n");
+        }
+    }
+
+    private static String simpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
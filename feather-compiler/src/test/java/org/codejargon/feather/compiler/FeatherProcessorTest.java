@@ -0,0 +1,216 @@
+package org.codejargon.feather.compiler;
+
+import org.codejargon.feather.Feather;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.inject.Inject;
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class FeatherProcessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void factoriesGenerated() throws Exception {
+        Compilation compilation = compile(
+                source("test.A", "package test; import javax.inject.*; public class A { final B b; final Provider<C> c; @Inject public A(B b, Provider<C> c) { this.b = b; this.c = c; } }"),
+                source("test.B", "package test; import javax.inject.*; @Singleton public class B { final String greeting; @Inject B(@Named(\"greeting\") String greeting) { this.greeting = greeting; } }"),
+                source("test.C", "package test; public class C { }"),
+                source("test.Module", "package test; import javax.inject.*; import org.codejargon.feather.Provides; public class Module { @Provides @Named(\"greeting\") String greeting() { return \"hi\"; } }"),
+                source("test.Target", "package test; import javax.inject.*; public class Target { @Inject A a; @Inject Provider<C> c; }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+        for (String generated : Arrays.asList("A_FeatherFactory", "B_FeatherFactory", "C_FeatherFactory", "Module_FeatherModule", "Target_FeatherInjector")) {
+            assertTrue(generated, new File(compilation.classes, "test/" + generated + ".class").exists());
+        }
+
+        Feather feather = Feather.with(compilation.load("test.Module").getDeclaredConstructor().newInstance());
+        Object a = feather.instance(compilation.load("test.A"));
+        assertEquals("hi", field(field(a, "b"), "greeting"));
+        Object target = compilation.load("test.Target").getDeclaredConstructor().newInstance();
+        feather.injectFields(target);
+        assertNotNull(field(target, "a"));
+        assertNotNull(((javax.inject.Provider<?>) field(target, "c")).get());
+    }
+
+    @Test
+    public void inaccessibleFallsBackToReflection() throws Exception {
+        Compilation compilation = compile(
+                source("test.Outer", "package test; import javax.inject.*; public class Outer { private static class Hidden { @Inject Hidden() { } } public static class Target { @Inject private C c; } }"),
+                source("test.C", "package test; public class C { }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+        assertFalse(new File(compilation.classes, "test/Outer_0Hidden_FeatherFactory.class").exists());
+        assertFalse(new File(compilation.classes, "test/Outer_0Target_FeatherInjector.class").exists());
+    }
+
+    @Test
+    public void nestedAndTopLevelNamesDontCollide() throws Exception {
+        Compilation compilation = compile(
+                source("test.Outer", "package test; import javax.inject.*; public class Outer { public static class Inner { @Inject public Inner() { } } }"),
+                source("test.Outer_Inner", "package test; import javax.inject.*; public class Outer_Inner { @Inject public Outer_Inner() { } }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+        assertTrue(new File(compilation.classes, "test/Outer_0Inner_FeatherFactory.class").exists());
+        assertTrue(new File(compilation.classes, "test/Outer__Inner_FeatherFactory.class").exists());
+        Feather feather = Feather.with();
+        assertNotNull(feather.instance(compilation.load("test.Outer$Inner")));
+        assertNotNull(feather.instance(compilation.load("test.Outer_Inner")));
+    }
+
+    @Test
+    public void missingBindingReportedWhenStrict() throws Exception {
+        Compilation compilation = compile(
+                Collections.singletonList("-Afeather.lenient=false"),
+                source("test.A", "package test; import javax.inject.*; public class A { @Inject A(Runnable runnable) { } }")
+        );
+        assertEquals(1, compilation.errors().size());
+        assertTrue(compilation.errors().get(0).contains("java.lang.Runnable doesn't have an @Inject or no-arg constructor, or a module provider"));
+    }
+
+    @Test
+    public void missingBindingWarnedByDefault() throws Exception {
+        Compilation compilation = compile(
+                source("test.A", "package test; import javax.inject.*; public class A { @Inject A(Runnable runnable) { } }")
+        );
+        assertTrue(compilation.errors().isEmpty());
+    }
+
+    @Test
+    public void qualifierKeyMatchesRuntimeFormat() throws Exception {
+        Compilation compilation = compile(
+                Collections.singletonList("-Afeather.lenient=false"),
+                source("test.Q", "package test; import javax.inject.*; import java.lang.annotation.*; @Qualifier @Retention(RetentionPolicy.RUNTIME) public @interface Q { }"),
+                source("test.A", "package test; import javax.inject.*; public class A { @Inject A(@Q Runnable runnable) { } }")
+        );
+        assertEquals(1, compilation.errors().size());
+        assertTrue(compilation.errors().get(0), compilation.errors().get(0).contains("java.lang.Runnable@Q doesn't have"));
+    }
+
+    @Test
+    public void circularDependencyReported() throws Exception {
+        Compilation compilation = compile(
+                source("test.Circle1", "package test; import javax.inject.*; public class Circle1 { @Inject Circle1(Circle2 circle2) { } }"),
+                source("test.Circle2", "package test; import javax.inject.*; public class Circle2 { @Inject Circle2(Circle1 circle1) { } }")
+        );
+        assertEquals(1, compilation.errors().size());
+        assertTrue(compilation.errors().get(0).contains("Circular dependency: test.Circle1 -> test.Circle2 -> test.Circle1"));
+    }
+
+    @Test
+    public void circularDependencyWithProviderAllowed() throws Exception {
+        Compilation compilation = compile(
+                source("test.Circle1", "package test; import javax.inject.*; public class Circle1 { @Inject Circle1(Circle2 circle2) { } }"),
+                source("test.Circle2", "package test; import javax.inject.*; public class Circle2 { @Inject Circle2(Provider<Circle1> circle1) { } }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+    }
+
+    @Test
+    public void overriddenProviderSkipped() throws Exception {
+        Compilation compilation = compile(
+                source("test.FooModule", "package test; import org.codejargon.feather.Provides; public class FooModule { @Provides String foo() { return \"foo\"; } }"),
+                source("test.FooOverrideModule", "package test; import org.codejargon.feather.Provides; public class FooOverrideModule extends FooModule { @Provides @Override String foo() { return \"bar\"; } }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+        assertEquals("bar", Feather.with(compilation.load("test.FooOverrideModule").getDeclaredConstructor().newInstance()).instance(String.class));
+    }
+
+    @Test
+    public void customScopedProviderFallsBackToReflection() throws Exception {
+        Compilation compilation = compile(
+                source("test.Module", "package test; import org.codejargon.feather.*; public class Module { @Provides @RequestScoped StringBuilder buffer() { return new StringBuilder(); } }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+        assertFalse(new File(compilation.classes, "test/Module_FeatherModule.class").exists());
+    }
+
+    @Test
+    public void lazyDependencyFallsBackToReflection() throws Exception {
+        Compilation compilation = compile(
+                source("test.Circle1", "package test; import javax.inject.*; public class Circle1 { @Inject Circle1(Circle2 circle2) { } }"),
+                source("test.Circle2", "package test; import javax.inject.*; import org.codejargon.feather.Lazy; public class Circle2 { final Lazy<Circle1> circle1; @Inject Circle2(Lazy<Circle1> circle1) { this.circle1 = circle1; } }")
+        );
+        assertTrue(compilation.errors().toString(), compilation.errors().isEmpty());
+        assertTrue(new File(compilation.classes, "test/Circle1_FeatherFactory.class").exists());
+        assertFalse(new File(compilation.classes, "test/Circle2_FeatherFactory.class").exists());
+        Object circle1 = Feather.with().instance(compilation.load("test.Circle1"));
+        assertNotNull(circle1);
+    }
+
+    private Compilation compile(JavaFileObject... sources) throws IOException {
+        return compile(Collections.<String>emptyList(), sources);
+    }
+
+    private Compilation compile(List<String> options, JavaFileObject... sources) throws IOException {
+        File classes = folder.newFolder();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> allOptions = new ArrayList<>(Arrays.asList(
+                "-classpath", classpath(Feather.class) + File.pathSeparator + classpath(Inject.class),
+                "-d", classes.getPath(),
+                "-s", classes.getPath()
+        ));
+        allOptions.addAll(options);
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, allOptions, null, Arrays.asList(sources));
+        task.setProcessors(Collections.singletonList(new FeatherProcessor()));
+        task.call();
+        return new Compilation(classes, diagnostics.getDiagnostics());
+    }
+
+    private static String classpath(Class<?> type) {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+
+    private static JavaFileObject source(String name, final String source) {
+        return new SimpleJavaFileObject(new File(name.replace('.', '/') + ".java").toURI(), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    private static Object field(Object target, String name) throws Exception {
+        java.lang.reflect.Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    private static class Compilation {
+        private final File classes;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private ClassLoader classLoader;
+
+        Compilation(File classes, List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+            this.classes = classes;
+            this.diagnostics = diagnostics;
+        }
+
+        List<String> errors() {
+            List<String> errors = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.add(diagnostic.getMessage(Locale.ENGLISH));
+                }
+            }
+            return errors;
+        }
+
+        Class<?> load(String name) throws Exception {
+            if (classLoader == null) {
+                classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, FeatherProcessorTest.class.getClassLoader());
+            }
+            return classLoader.loadClass(name);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.codejargon.feather.jfr;
+
+import jdk.jfr.*;
+import org.codejargon.feather.Key;
+import org.codejargon.feather.ProvisionListener;
+
+/**
+ * Emits Java Flight Recorder events of the one-off costs of Feather: scanning modules, resolving bindings for the first
+ * time, initializing singletons (and waiting for another thread initializing one) and creating field injection plans.
+ * <pre>
+ * Feather feather = Feather.builder().modules(...).listener(new JfrListener()).build();
+ * </pre>
+ * Events are in the Feather category, enabled by default, without stack traces. Durations are in the time field, the
+ * events are recorded when the work is done. Instances of non-singleton bindings aren't timed, unless by the next
+ * listener. While the events are disabled a callback is an enabled check.
+ */
+public class JfrListener extends ProvisionListener {
+    private final ProvisionListener next;
+
+    public JfrListener() {
+        this(null);
+    }
+
+    /**
+     * @param next listener also notified of everything, eg ProvisionMetrics
+     */
+    public JfrListener(ProvisionListener next) {
+        this.next = next;
+    }
+
+    @Override
+    public void provisioned(Key<?> key, long nanos) {
+        if (next != null) {
+            next.provisioned(key, nanos);
+        }
+    }
+
+    @Override
+    public void provisioned(Key<?> key, long nanos, long selfNanos) {
+        if (next != null) {
+            next.provisioned(key, nanos, selfNanos);
+        }
+    }
+
+    @Override
+    public boolean listensToInstances() {
+        return next != null && next.listensToInstances();
+    }
+
+    @Override
+    public void moduleScanned(Class<?> module, int bindings, long nanos) {
+        ModuleScan event = new ModuleScan();
+        if (event.isEnabled()) {
+            event.module = module;
+            event.bindings = bindings;
+            event.time = nanos;
+            event.commit();
+        }
+        if (next != null) {
+            next.moduleScanned(module, bindings, nanos);
+        }
+    }
+
+    @Override
+    public void bindingLinked(Key<?> key, long nanos) {
+        BindingResolution event = new BindingResolution();
+        if (event.isEnabled()) {
+            event.key = key.toString();
+            event.time = nanos;
+            event.commit();
+        }
+        if (next != null) {
+            next.bindingLinked(key, nanos);
+        }
+    }
+
+    @Override
+    public void singletonInitialized(Key<?> key, long nanos) {
+        singletonInitialized(key, nanos, nanos);
+    }
+
+    @Override
+    public void singletonInitialized(Key<?> key, long nanos, long selfNanos) {
+        SingletonInitialization event = new SingletonInitialization();
+        if (event.isEnabled()) {
+            event.key = key.toString();
+            event.time = nanos;
+            event.selfTime = selfNanos;
+            event.commit();
+        }
+        if (next != null) {
+            next.singletonInitialized(key, nanos, selfNanos);
+        }
+    }
+
+    @Override
+    public void singletonWaited(Key<?> key, long nanos) {
+        SingletonWait event = new SingletonWait();
+        if (event.isEnabled()) {
+            event.key = key.toString();
+            event.time = nanos;
+            event.commit();
+        }
+        if (next != null) {
+            next.singletonWaited(key, nanos);
+        }
+    }
+
+    @Override
+    public void fieldsPlanned(Class<?> type, long nanos) {
+        FieldPlan event = new FieldPlan();
+        if (event.isEnabled()) {
+            event.type = type;
+            event.time = nanos;
+            event.commit();
+        }
+        if (next != null) {
+            next.fieldsPlanned(type, nanos);
+        }
+    }
+
+    @Name("org.codejargon.feather.ModuleScan")
+    @Label("Module Scan")
+    @Category("Feather")
+    @Description("Provider methods or generated factories of a module scanned")
+    @StackTrace(false)
+    static class ModuleScan extends Event {
+        @Label("Module")
+        Class<?> module;
+        @Label("Bindings")
+        int bindings;
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("org.codejargon.feather.BindingResolution")
+    @Label("Binding Resolution")
+    @Category("Feather")
+    @Description("Binding created and linked on first use, including its dependencies")
+    @StackTrace(false)
+    static class BindingResolution extends Event {
+        @Label("Key")
+        String key;
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("org.codejargon.feather.SingletonInitialization")
+    @Label("Singleton Initialization")
+    @Category("Feather")
+    @StackTrace(false)
+    static class SingletonInitialization extends Event {
+        @Label("Key")
+        String key;
+        @Label("Time")
+        @Timespan
+        long time;
+        @Label("Self Time")
+        @Description("Time excluding the dependencies created for the singleton")
+        @Timespan
+        long selfTime;
+    }
+
+    @Name("org.codejargon.feather.SingletonWait")
+    @Label("Singleton Wait")
+    @Category("Feather")
+    @Description("Thread waited for another one initializing a singleton")
+    @StackTrace(false)
+    static class SingletonWait extends Event {
+        @Label("Key")
+        String key;
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+
+    @Name("org.codejargon.feather.FieldPlan")
+    @Label("Field Injection Plan")
+    @Category("Feather")
+    @StackTrace(false)
+    static class FieldPlan extends Event {
+        @Label("Type")
+        Class<?> type;
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+}
@@ -0,0 +1,100 @@
+package org.codejargon.feather.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.codejargon.feather.Feather;
+import org.codejargon.feather.Key;
+import org.codejargon.feather.ProvisionMetrics;
+import org.codejargon.feather.Provides;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JfrListenerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void eventsRecorded() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("org.codejargon.feather.*");
+            recording.start();
+            Feather feather = Feather.builder().modules(new Module()).listener(new JfrListener()).build();
+            feather.instance(A.class);
+            feather.injectFields(new Target());
+            recording.stop();
+            File file = folder.newFile("feather.jfr");
+            recording.dump(file.toPath());
+            events = RecordingFile.readAllEvents(file.toPath());
+        }
+        assertEquals(1, events("org.codejargon.feather.ModuleScan", events).size());
+        RecordedEvent scan = events("org.codejargon.feather.ModuleScan", events).get(0);
+        assertEquals(Module.class.getName(), scan.getClass("module").getName());
+        assertEquals(1, scan.getInt("bindings"));
+        List<String> resolved = new ArrayList<>();
+        for (RecordedEvent event : events("org.codejargon.feather.BindingResolution", events)) {
+            resolved.add(event.getString("key"));
+        }
+        assertTrue(resolved.contains(Key.of(A.class).toString()));
+        assertTrue(resolved.contains(Key.of(S.class).toString()));
+        RecordedEvent singleton = events("org.codejargon.feather.SingletonInitialization", events).get(0);
+        assertEquals(Key.of(S.class).toString(), singleton.getString("key"));
+        assertEquals(1, events("org.codejargon.feather.FieldPlan", events).size());
+    }
+
+    @Test
+    public void nextListenerNotified() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(new JfrListener(metrics)).build();
+        feather.instance(A.class);
+        assertEquals(1, metrics.count(Key.of(A.class)));
+        assertEquals(1, metrics.count(Key.of(S.class)));
+    }
+
+    @Test
+    public void instancesNotTimedAlone() {
+        assertFalse(new JfrListener().listensToInstances());
+    }
+
+    private static List<RecordedEvent> events(String name, List<RecordedEvent> events) {
+        List<RecordedEvent> named = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                named.add(event);
+            }
+        }
+        return named;
+    }
+
+    public static class A {
+        @Inject
+        public A(S s) {
+        }
+    }
+
+    @Singleton
+    public static class S {
+    }
+
+    public static class Target {
+        @Inject
+        S s;
+    }
+
+    public static class Module {
+        @Provides
+        String greeting() {
+            return "hi";
+        }
+    }
+}
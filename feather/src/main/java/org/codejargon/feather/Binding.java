@@ -0,0 +1,53 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * A binding: its dependencies and how it's instantiated. Arguments are linked to the providers of the dependencies
+ * on first resolution, instances are created without looking up the dependencies again.
+ */
+class Binding implements Provider<Object> {
+    final Key<?> key;
+    final Object source;
+    final Key<?>[] dependencies;
+    final boolean[] providers;
+    final boolean singleton;
+    final Class<? extends Annotation> scope;
+    final Invoker invoker;
+    volatile Provider<?>[] arguments;
+    volatile Provider<?> provider = this;
+
+    Binding(Key<?> key, Object source, Key<?>[] dependencies, boolean[] providers, boolean singleton, Class<? extends Annotation> scope, Invoker invoker) {
+        this.key = key;
+        this.source = source;
+        this.dependencies = dependencies;
+        this.providers = providers;
+        this.singleton = singleton;
+        this.scope = scope;
+        this.invoker = invoker;
+    }
+
+    boolean linked() {
+        return arguments != null;
+    }
+
+    @Override
+    public Object get() {
+        return create(arguments);
+    }
+
+    /**
+     * @return a new instance, arguments[i].get() being the value of the i-th dependency
+     */
+    Object create(Provider<?>[] arguments) {
+        try {
+            return invoker.invoke(arguments);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new FeatherException(String.format(source instanceof Method ? "Can't instantiate %s with provider" : "Can't instantiate %s", key.toString()), e);
+        }
+    }
+}
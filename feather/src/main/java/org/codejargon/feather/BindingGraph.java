@@ -0,0 +1,298 @@
+package org.codejargon.feather;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Snapshot of the bindings a Feather has resolved: each key with its source, scope and dependencies, and with a
+ * ProvisionMetrics listener the number of instances created and the time spent creating them, in total and excluding
+ * the dependencies created for them (self time). Call Feather.validate() first to resolve the whole graph. Exports to
+ * Graphviz (toDot()) and JSON (toJson()), eg:
+ * <pre>
+ * ProvisionMetrics metrics = new ProvisionMetrics();
+ * Feather feather = Feather.builder().listener(metrics).modules(...).build();
+ * ...
+ * String dot = BindingGraph.of(feather, metrics).toDot();
+ * </pre>
+ */
+public final class BindingGraph {
+    private final Map<Key<?>, Node> nodes;
+    private final boolean measured;
+
+    private BindingGraph(Map<Key<?>, Node> nodes, boolean measured) {
+        this.nodes = nodes;
+        this.measured = measured;
+    }
+
+    /**
+     * @return the bindings of feather resolved so far, without costs
+     */
+    public static BindingGraph of(Feather feather) {
+        return of(feather, null);
+    }
+
+    /**
+     * @param metrics listener of feather the costs are taken from, null for none
+     * @return the bindings of feather resolved so far, with their costs measured by metrics
+     */
+    public static BindingGraph of(Feather feather, ProvisionMetrics metrics) {
+        List<Binding> bindings = feather.ownBindings();
+        Collections.sort(bindings, new Comparator<Binding>() {
+            @Override
+            public int compare(Binding a, Binding b) {
+                return a.key.toString().compareTo(b.key.toString());
+            }
+        });
+        Map<Key<?>, Node> nodes = new LinkedHashMap<>(bindings.size() * 4 / 3 + 1);
+        for (Binding binding : bindings) {
+            nodes.put(binding.key, new Node(binding, metrics));
+        }
+        return new BindingGraph(Collections.unmodifiableMap(nodes), metrics != null);
+    }
+
+    /**
+     * @return the nodes, ordered by key
+     */
+    public Collection<Node> nodes() {
+        return nodes.values();
+    }
+
+    /**
+     * @return node of key, null if key isn't resolved
+     */
+    public Node node(Key<?> key) {
+        return nodes.get(key);
+    }
+
+    /**
+     * @return the graph in Graphviz DOT format: singletons in bold, Provider and Lazy dependencies dashed
+     */
+    public String toDot() {
+        StringBuilder dot = new StringBuilder(64 + nodes.size() * 128);
+        dot.append("digraph feather {\n  rankdir=LR;\n  node [shape=box];\n");
+        for (Node node : nodes.values()) {
+            String id = dotString(node.key.toString());
+            dot.append("  ").append(id).append(" [label=").append(dotString(node.label()));
+            if (node.singleton) {
+                dot.append(", style=bold");
+            }
+            dot.append("];\n");
+            for (Dependency dependency : node.dependencies) {
+                dot.append("  ").append(id).append(" -> ").append(dotString(dependency.key.toString()));
+                if (dependency.provider || dependency.lazy) {
+                    dot.append(" [style=dashed]");
+                }
+                dot.append(";\n");
+            }
+        }
+        return dot.append("}\n").toString();
+    }
+
+    /**
+     * @return the graph as a JSON object of a "nodes" array, times in nanoseconds
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(16 + nodes.size() * 192);
+        json.append("{\n  \"nodes\": [");
+        String separator = "\n    ";
+        for (Node node : nodes.values()) {
+            json.append(separator).append("{\"key\": ").append(jsonString(node.key.toString()))
+                    .append(", \"source\": ").append(jsonString(node.source()))
+                    .append(", \"singleton\": ").append(node.singleton)
+                    .append(", \"scope\": ").append(node.scope != null ? jsonString(node.scope.getName()) : "null");
+            if (measured) {
+                json.append(", \"count\": ").append(node.count)
+                        .append(", \"nanos\": ").append(node.nanos)
+                        .append(", \"selfNanos\": ").append(node.selfNanos);
+            }
+            json.append(", \"dependencies\": [");
+            for (int i = 0; i < node.dependencies.size(); ++i) {
+                Dependency dependency = node.dependencies.get(i);
+                json.append(i == 0 ? "" : ", ").append("{\"key\": ").append(jsonString(dependency.key.toString()))
+                        .append(", \"provider\": ").append(dependency.provider)
+                        .append(", \"lazy\": ").append(dependency.lazy).append('}');
+            }
+            json.append("]}");
+            separator = ",\n    ";
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private static String dotString(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    /**
+     * A resolved binding
+     */
+    public static final class Node {
+        private final Key<?> key;
+        private final Object member;
+        private final boolean singleton;
+        private final Class<? extends Annotation> scope;
+        private final List<Dependency> dependencies;
+        private final long count;
+        private final long nanos;
+        private final long selfNanos;
+
+        Node(Binding binding, ProvisionMetrics metrics) {
+            this.key = binding.key;
+            this.member = binding.source;
+            this.singleton = binding.singleton;
+            this.scope = binding.scope;
+            boolean[] lazy = Metadata.lazyParameters(binding.source);
+            List<Dependency> dependencies = new ArrayList<>(binding.dependencies.length);
+            for (int i = 0; i < binding.dependencies.length; ++i) {
+                boolean isLazy = lazy != null && lazy[i];
+                dependencies.add(new Dependency(binding.dependencies[i], binding.providers[i] && !isLazy, isLazy));
+            }
+            this.dependencies = Collections.unmodifiableList(dependencies);
+            this.count = metrics != null ? metrics.count(key) : 0;
+            this.nanos = metrics != null ? metrics.nanos(key) : 0;
+            this.selfNanos = metrics != null ? metrics.selfNanos(key) : 0;
+        }
+
+        public Key<?> key() {
+            return key;
+        }
+
+        /**
+         * @return what creates the instances: a Constructor, a provider Method, a Factory generated by feather-compiler,
+         * or the Feather itself
+         */
+        public Object member() {
+            return member;
+        }
+
+        /**
+         * @return description of member, eg "constructor of com.app.A" or "@Provides com.app.AppModule.a()"
+         */
+        public String source() {
+            if (member instanceof Constructor) {
+                return "constructor of " + ((Constructor<?>) member).getDeclaringClass().getName();
+            } else if (member instanceof Method) {
+                Method method = (Method) member;
+                return "@Provides " + method.getDeclaringClass().getName() + "." + method.getName() + "()";
+            } else if (member instanceof Factory) {
+                return Metadata.factory(key.type) == member ? "generated factory of " + key.type.getName() : "generated @Provides " + member.getClass().getName();
+            }
+            return "Feather";
+        }
+
+        public boolean singleton() {
+            return singleton;
+        }
+
+        /**
+         * @return the custom scope annotation, null if unscoped or a singleton
+         */
+        public Class<? extends Annotation> scope() {
+            return scope;
+        }
+
+        /**
+         * @return the dependencies, in parameter order
+         */
+        public List<Dependency> dependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return number of instances created, 0 without metrics
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * @return time spent creating the instances including their dependencies, 0 without metrics
+         */
+        public long nanos() {
+            return nanos;
+        }
+
+        /**
+         * @return time spent creating the instances excluding the dependencies created for them, 0 without metrics
+         */
+        public long selfNanos() {
+            return selfNanos;
+        }
+
+        private String label() {
+            String label = key + "\n" + source();
+            if (scope != null) {
+                label += "\n@" + scope.getSimpleName();
+            }
+            if (count > 0) {
+                label += String.format(Locale.ROOT, "\n%d x, %.3f ms self / %.3f ms", count, selfNanos / 1e6, nanos / 1e6);
+            }
+            return label;
+        }
+
+        @Override
+        public String toString() {
+            return key + " <- " + source();
+        }
+    }
+
+    /**
+     * A dependency of a node, injected directly, as a Provider or as a Lazy
+     */
+    public static final class Dependency {
+        private final Key<?> key;
+        private final boolean provider;
+        private final boolean lazy;
+
+        Dependency(Key<?> key, boolean provider, boolean lazy) {
+            this.key = key;
+            this.provider = provider;
+            this.lazy = lazy;
+        }
+
+        public Key<?> key() {
+            return key;
+        }
+
+        /**
+         * @return whether injected as a Provider
+         */
+        public boolean provider() {
+            return provider;
+        }
+
+        /**
+         * @return whether injected as a Lazy
+         */
+        public boolean lazy() {
+            return lazy;
+        }
+    }
+}
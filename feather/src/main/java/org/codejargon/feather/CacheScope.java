@@ -0,0 +1,272 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.lang.ref.SoftReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scope between singletons and new instances: each binding of the scope has a single instance like a singleton, held
+ * by a cache bounded by the number of instances, optionally expiring some time after it was created or last used, or
+ * held through soft references. An evicted instance is created again by the next get().
+ * <pre>
+ * CacheScope cache = CacheScope.builder().maxEntries(100).expireAfterAccess(10, TimeUnit.MINUTES).build();
+ * Feather feather = Feather.builder().modules(...).scope(Cached.class, cache).build();
+ * </pre>
+ * Each binding of the scope has an entry of its own: children delegating a binding to their parent share the parent's,
+ * a child binding a key of the parent differently has its own. Entries holding an instance form a CLOCK ring: a get()
+ * of a cached instance marks its entry used, when the cache grows beyond maxEntries a hand sweeps the ring, passing the
+ * used entries back to its tail unmarked and evicting the others. A get() of a cached instance is a few volatile reads
+ * (and a System.nanoTime() if instances expire), no lock is involved; creating an instance locks its entry only.
+ */
+public class CacheScope implements Scoping {
+    private final int maxEntries;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final boolean softValues;
+    private final boolean recordStats;
+    private final Queue<Entry<?>> ring = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private CacheScope(Builder builder) {
+        this.maxEntries = builder.maxEntries;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.softValues = builder.softValues;
+        this.recordStats = builder.recordStats;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a new entry of the binding of key
+     */
+    @Override
+    public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+        return new Entry<>(unscoped);
+    }
+
+    /**
+     * @return number of get()s served by a cached instance, 0 unless the cache records stats
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of get()s creating an instance, for the first time or after an eviction, 0 unless the cache
+     * records stats
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of instances evicted: beyond maxEntries, expired or cleared by the garbage collector, 0 unless
+     * the cache records stats
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return number of instances cached, including expired or cleared ones not noticed yet
+     */
+    public int size() {
+        return live.get();
+    }
+
+    /**
+     * Advances the hand over the ring until the cache is back to maxEntries
+     */
+    private void sweep() {
+        while (live.get() > maxEntries) {
+            Entry<?> entry = ring.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entry.used) {
+                entry.used = false;
+                ring.offer(entry);
+            } else if (entry.evict()) {
+                live.decrementAndGet();
+                if (recordStats) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * An instance and the nanoTime it was created
+     */
+    private static class Value<T> {
+        private final Object instance;
+        private final long written;
+
+        Value(T instance, boolean soft, long written) {
+            this.instance = soft ? new SoftReference<>(instance) : instance;
+            this.written = written;
+        }
+
+        @SuppressWarnings("unchecked")
+        T instance() {
+            return instance instanceof SoftReference ? ((SoftReference<T>) instance).get() : (T) instance;
+        }
+    }
+
+    private class Entry<T> implements Provider<T> {
+        private final Provider<T> unscoped;
+        private final AtomicReference<Value<T>> value = new AtomicReference<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        volatile boolean used;
+        private volatile long accessed;
+
+        Entry(Provider<T> unscoped) {
+            this.unscoped = unscoped;
+        }
+
+        @Override
+        public T get() {
+            Value<T> current = value.get();
+            T instance = current != null ? valid(current) : null;
+            if (instance == null) {
+                return create();
+            }
+            if (recordStats) {
+                hits.incrementAndGet();
+            }
+            if (!used) {
+                used = true;
+            }
+            return instance;
+        }
+
+        boolean evict() {
+            Value<T> current = value.get();
+            return current != null && value.compareAndSet(current, null);
+        }
+
+        /**
+         * @return the instance of the value, null if it expired or was cleared
+         */
+        private T valid(Value<T> current) {
+            if (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) {
+                long now = System.nanoTime();
+                if ((expireAfterWriteNanos > 0 && now - current.written >= expireAfterWriteNanos) ||
+                        (expireAfterAccessNanos > 0 && now - accessed >= expireAfterAccessNanos)) {
+                    return null;
+                }
+                if (expireAfterAccessNanos > 0 && now - accessed > expireAfterAccessNanos >> 6) {
+                    accessed = now;
+                }
+            }
+            return current.instance();
+        }
+
+        private T create() {
+            lock.lock();
+            try {
+                Value<T> current = value.get();
+                T instance = current != null ? valid(current) : null;
+                if (instance != null) {
+                    if (recordStats) {
+                        hits.incrementAndGet();
+                    }
+                    return instance;
+                }
+                if (recordStats) {
+                    misses.incrementAndGet();
+                }
+                instance = unscoped.get();
+                long now = System.nanoTime();
+                accessed = now;
+                used = true;
+                Value<T> created = new Value<>(instance, softValues, now);
+                if (current != null && value.compareAndSet(current, created)) {
+                    if (recordStats) {
+                        evictions.incrementAndGet();
+                    }
+                } else {
+                    value.set(created);
+                    ring.offer(this);
+                    if (live.incrementAndGet() > maxEntries) {
+                        sweep();
+                    }
+                }
+                return instance;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public static class Builder {
+        private int maxEntries = Integer.MAX_VALUE;
+        private long expireAfterWriteNanos;
+        private long expireAfterAccessNanos;
+        private boolean softValues;
+        private boolean recordStats;
+
+        private Builder() {
+        }
+
+        /**
+         * Number of instances cached at most, least recently used ones are evicted beyond that. Unbounded by default.
+         */
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 1) {
+                throw new IllegalArgumentException("maxEntries < 1");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Instances expire the duration after they were created
+         */
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Instances expire the duration after they were last provided. The time of use is tracked to within 1/64 of
+         * the duration, so a get() of a cached instance writes it rarely.
+         */
+        public Builder expireAfterAccess(long duration, TimeUnit unit) {
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Instances are held through soft references, so the garbage collector may clear them under memory pressure
+         */
+        public Builder softValues() {
+            this.softValues = true;
+            return this;
+        }
+
+        /**
+         * Counts hits, misses and evictions. Off by default, counting hits costs an atomic increment per get().
+         */
+        public Builder recordStats() {
+            this.recordStats = true;
+            return this;
+        }
+
+        public CacheScope build() {
+            return new CacheScope(this);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.codejargon.feather;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Value computed once per class and shared by all Feather instances. Backed by ClassValue when available, so classes
+ * of discarded class loaders aren't pinned. Where it isn't (Android) a WeakHashMap of soft values is used instead: a
+ * value referring to its class doesn't keep the class reachable, at worst it's recomputed under memory pressure.
+ * Computing may throw, nothing is cached then. Null values are allowed.
+ */
+abstract class ClassCache<T> {
+    private static final boolean classValue = classValue();
+
+    private final Storage storage = classValue ? new ClassValueStorage(this) : new WeakStorage(this);
+
+    abstract T compute(Class<?> type);
+
+    @SuppressWarnings("unchecked")
+    T get(Class<?> type) {
+        return (T) storage.get(type);
+    }
+
+    private static boolean classValue() {
+        if ("weak".equals(System.getProperty("feather.classCache"))) {
+            return false;
+        }
+        try {
+            Class.forName("java.lang.ClassValue");
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    interface Storage {
+        Object get(Class<?> type);
+    }
+
+    static class ClassValueStorage extends ClassValue<Object> implements Storage {
+        private final ClassCache<?> cache;
+
+        ClassValueStorage(ClassCache<?> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        protected Object computeValue(Class<?> type) {
+            return cache.compute(type);
+        }
+    }
+
+    static class WeakStorage implements Storage {
+        private static final Object NULL = new Object();
+
+        private final ClassCache<?> cache;
+        private final Map<Class<?>, SoftReference<Object>> values = new WeakHashMap<>();
+
+        WeakStorage(ClassCache<?> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object get(Class<?> type) {
+            Object value = cached(type);
+            if (value == null) {
+                Object computed = cache.compute(type);
+                synchronized (values) {
+                    value = cached(type);
+                    if (value == null) {
+                        value = computed != null ? computed : NULL;
+                        values.put(type, new SoftReference<>(value));
+                    }
+                }
+            }
+            return value != NULL ? value : null;
+        }
+
+        private Object cached(Class<?> type) {
+            synchronized (values) {
+                SoftReference<Object> reference = values.get(type);
+                return reference != null ? reference.get() : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instantiates the fused non-singleton graph of a root binding. Steps are in dependency order, each either invokes a
+ * constructor / provider method with arguments from the frame of previous steps or asks an external provider
+ * (singletons, injected Providers, generated factories). The root is the last step.
+ */
+class CompiledProvider implements Provider<Object> {
+    private final Key<?>[] keys;
+    private final Invoker[] invokers;
+    private final int[][] slots;
+    private final Provider<?>[] externals;
+
+    private CompiledProvider(Builder builder) {
+        int size = builder.keys.size();
+        this.keys = builder.keys.toArray(new Key<?>[size]);
+        this.invokers = builder.invokers.toArray(new Invoker[size]);
+        this.slots = builder.slots.toArray(new int[size][]);
+        this.externals = builder.externals.toArray(new Provider<?>[size]);
+    }
+
+    @Override
+    public Object get() {
+        Object[] frame = new Object[invokers.length];
+        for (int i = 0; i < invokers.length; ++i) {
+            if (invokers[i] == null) {
+                frame[i] = externals[i].get();
+            } else {
+                try {
+                    frame[i] = invokers[i].invoke(frame, slots[i]);
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new FeatherException(String.format("Can't instantiate %s", keys[i].toString()), e);
+                }
+            }
+        }
+        return frame[frame.length - 1];
+    }
+
+    static class Builder {
+        private final List<Key<?>> keys = new ArrayList<>();
+        private final List<Invoker> invokers = new ArrayList<>();
+        private final List<int[]> slots = new ArrayList<>();
+        private final List<Provider<?>> externals = new ArrayList<>();
+
+        int invoke(Key<?> key, Invoker invoker, int[] argumentSlots) {
+            return add(key, invoker, argumentSlots, null);
+        }
+
+        int external(Key<?> key, Provider<?> provider) {
+            return add(key, null, null, provider);
+        }
+
+        CompiledProvider build() {
+            return new CompiledProvider(this);
+        }
+
+        private int add(Key<?> key, Invoker invoker, int[] argumentSlots, Provider<?> provider) {
+            keys.add(key);
+            invokers.add(invoker);
+            slots.add(argumentSlots);
+            externals.add(provider);
+            return keys.size() - 1;
+        }
+    }
+}
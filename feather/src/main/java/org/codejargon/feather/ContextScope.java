@@ -0,0 +1,120 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scope of instances living in a context entered by the current thread, eg a request or a session. Each scoped
+ * binding gets a slot number when it's created - a child injector binding a key of the parent differently gets its
+ * own slot. A context holds the instances in an array indexed by the slots, sized to the number of bindings known
+ * when the context is created. Entering and leaving a context doesn't depend on the number of scoped bindings.
+ * <pre>
+ * ContextScope requests = new ContextScope();
+ * Feather feather = Feather.builder().modules(...).scope(RequestScoped.class, requests).build();
+ * requests.enter();
+ * try {
+ *     ...
+ * } finally {
+ *     requests.exit();
+ * }
+ * </pre>
+ * A context can be entered again later or by other threads (eg a session), its instances are created once.
+ */
+public class ContextScope implements Scoping {
+    private final AtomicInteger slotCount = new AtomicInteger();
+    private final ThreadLocal<Context> current = new ThreadLocal<>();
+
+    @Override
+    public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
+        final int slot = slotCount.getAndIncrement();
+        return new Provider<T>() {
+            @Override
+            public T get() {
+                Context context = current.get();
+                if (context == null) {
+                    throw new FeatherException(String.format("%s is scoped, but there is no context entered", key.toString()));
+                }
+                return context.get(slot, unscoped);
+            }
+        };
+    }
+
+    /**
+     * @return a new context, not entered
+     */
+    public Context newContext() {
+        return new Context(slotCount.get());
+    }
+
+    /**
+     * Enters a new context on the current thread
+     *
+     * @return the context entered
+     */
+    public Context enter() {
+        Context context = newContext();
+        enter(context);
+        return context;
+    }
+
+    /**
+     * Enters the context on the current thread
+     */
+    public void enter(Context context) {
+        if (current.get() != null) {
+            throw new FeatherException("A context of the scope is already entered");
+        }
+        current.set(context);
+    }
+
+    /**
+     * Leaves the context entered on the current thread
+     */
+    public void exit() {
+        current.remove();
+    }
+
+    /**
+     * Instances of the scoped bindings in a context. Once created, an instance is a volatile read away.
+     */
+    public static class Context {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile AtomicReferenceArray<Object> instances;
+
+        private Context(int size) {
+            this.instances = new AtomicReferenceArray<>(size);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T get(int slot, Provider<T> unscoped) {
+            AtomicReferenceArray<Object> current = instances;
+            Object instance = slot < current.length() ? current.get(slot) : null;
+            return instance != null ? (T) instance : create(slot, unscoped);
+        }
+
+        private <T> T create(int slot, Provider<T> unscoped) {
+            lock.lock();
+            try {
+                AtomicReferenceArray<Object> current = instances;
+                if (slot >= current.length()) {
+                    AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(Math.max(slot + 1, current.length() * 2));
+                    for (int i = 0; i < current.length(); ++i) {
+                        grown.set(i, current.get(i));
+                    }
+                    instances = current = grown;
+                }
+                @SuppressWarnings("unchecked")
+                T instance = (T) current.get(slot);
+                if (instance == null) {
+                    instance = unscoped.get();
+                    instances.set(slot, instance);
+                }
+                return instance;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
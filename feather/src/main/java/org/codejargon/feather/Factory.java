@@ -0,0 +1,34 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+
+/**
+ * Reflection-free factory of a binding, generated by feather-compiler for classes with an @Inject constructor and
+ * for the @Provides methods of modules. Feather prefers it over reflection when it's present.
+ */
+public interface Factory<T> {
+    /**
+     * @return key of the binding
+     */
+    Key<T> key();
+
+    /**
+     * @return whether the binding is a singleton
+     */
+    boolean singleton();
+
+    /**
+     * @return keys of the dependencies, in parameter order
+     */
+    Key<?>[] dependencies();
+
+    /**
+     * @return for each dependency whether it's injected as a Provider
+     */
+    boolean[] providers();
+
+    /**
+     * @return a new instance, arguments[i].get() being the value of the i-th parameter
+     */
+    T create(Provider<?>[] arguments);
+}
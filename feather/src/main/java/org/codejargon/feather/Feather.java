@@ -1,53 +1,96 @@
 package org.codejargon.feather;
 
-import javax.inject.*;
+import javax.inject.Provider;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 
 public class Feather {
-    private final Map<Key, Provider<?>> providers = new ConcurrentHashMap<>();
-    private final Map<Key, Object> singletons = new ConcurrentHashMap<>();
-    private final Map<Class, Object[][]> injectFields = new ConcurrentHashMap<>(0);
+    private static final Provider<?>[] NO_ARGUMENTS = new Provider<?>[0];
+    private volatile ConcurrentMap<Key, Binding> bindings = new ConcurrentHashMap<>();
+    private volatile FrozenBindings frozen;
+    private final ConcurrentMap<Class<?>, Binding> typeBindings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, FieldPlan> fieldPlans = new ConcurrentHashMap<>(0);
+    private final ConcurrentMap<Key<?>, Set<Key<?>>> reachable = new ConcurrentHashMap<>(0);
+    private final Map<Key, Deferred> deferred = new HashMap<>(0);
+    private final ProvisionListener listener;
+    private final ProvisionListener instanceListener;
+    private final Map<Class<? extends Annotation>, Scoping> scopes;
+    private final Feather parent;
+    private final Key<?>[] moduleKeys;
 
     /**
      * Constructs Feather with configuration modules
      */
     public static Feather with(Object... modules) {
-        return new Feather(Arrays.asList(modules));
+        return builder().modules(modules).build();
     }
 
     /**
      * Constructs Feather with configuration modules
      */
     public static Feather with(Iterable<?> modules) {
-        return new Feather(modules);
+        return builder().modules(modules).build();
     }
 
-    private Feather(Iterable<?> modules) {
-        providers.put(Key.of(Feather.class), new Provider() {
-                    @Override
-                    public Object get() {
-                        return this;
-                    }
-                }
-        );
-        for (final Object module : modules) {
-            if (module instanceof Class) {
-                throw new FeatherException(String.format("%s provided as class instead of an instance.", ((Class) module).getName()));
+    /**
+     * @return builder of Feather with options beyond the configuration modules
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private Feather(Builder builder, Feather parent) {
+        this.listener = builder.listener != null || parent == null ? builder.listener : parent.listener;
+        this.instanceListener = listener != null && listener.listensToInstances() ? listener : null;
+        this.scopes = parent == null ? new HashMap<>(builder.scopes) : parent.scopes;
+        this.parent = parent;
+        Key<Feather> featherKey = Key.of(Feather.class);
+        bindings.put(featherKey, new Binding(featherKey, this, new Key<?>[0], new boolean[0], false, null, Invoker.of(this)));
+        if (builder.lazy) {
+            for (Object module : builder.modules) {
+                defer(module);
             }
-            for (Method providerMethod : providers(module.getClass())) {
-                providerMethod(module, providerMethod);
+        } else if (builder.executor == null) {
+            for (Object module : builder.modules) {
+                register(module, moduleBindings(module));
+            }
+        } else {
+            List<Future<List<Binding>>> scanned = scan(builder.modules, builder.executor);
+            for (int i = 0; i < scanned.size(); ++i) {
+                register(builder.modules.get(i), scanned(scanned.get(i)));
             }
         }
+        Set<Key> keys = new HashSet<>(bindings.keySet());
+        keys.addAll(deferred.keySet());
+        keys.remove(featherKey);
+        moduleKeys = keys.toArray(new Key<?>[keys.size()]);
+    }
+
+    /**
+     * Creates a child injector with additional modules, eg for request scoped bindings. The child binds what its modules
+     * provide (overriding the parent) and what depends on those, including singletons, which are singletons of the child
+     * then. Everything else is delegated to the parent, sharing its linked providers and singletons. Depending on
+     * Feather itself doesn't make a binding the child's.
+     */
+    public Feather child(Object... modules) {
+        return new Feather(builder().modules(modules), this);
+    }
+
+    /**
+     * Creates a child injector with additional modules, see child(Object...)
+     */
+    public Feather child(Iterable<?> modules) {
+        return new Feather(builder().modules(modules), this);
     }
 
     /**
      * @return an instance of type
      */
     public <T> T instance(Class<T> type) {
-        return provider(Key.of(type), null).get();
+        return provider(type).get();
     }
 
     /**
@@ -57,11 +100,106 @@ public class Feather {
         return provider(key, null).get();
     }
 
+    /**
+     * @return n instances of type, see instances(Key, int)
+     */
+    public <T> List<T> instances(Class<T> type, int n) {
+        return instances(Key.of(type), n);
+    }
+
+    /**
+     * @return n instances specified by key, as n instance() calls would return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> instances(Key<T> key, int n) {
+        Object[] instances = new Object[n];
+        instantiate(key, instances);
+        return (List<T>) Arrays.asList(instances);
+    }
+
+    /**
+     * Fills target with instances of type, see fill(Key, Object[])
+     */
+    public <T> void fill(Class<T> type, T[] target) {
+        fill(Key.of(type), target);
+    }
+
+    /**
+     * Fills target with instances specified by key, as target.length instance() calls would. The binding is looked up
+     * and linked once, the singletons it depends on directly are fetched once, then the instances are created in a
+     * loop. Scoped bindings are asked for each instance.
+     */
+    public <T> void fill(Key<T> key, T[] target) {
+        instantiate(key, target);
+    }
+
+    private void instantiate(Key<?> key, Object[] target) {
+        Binding binding = linked(key, null);
+        if (scoped(binding)) {
+            for (int i = 0; i < target.length; ++i) {
+                target[i] = binding.provider.get();
+            }
+            return;
+        }
+        Provider<?>[] arguments = binding.arguments.clone();
+        for (int i = 0; i < arguments.length; ++i) {
+            if (!binding.providers[i] && linked(binding.dependencies[i], null).singleton) {
+                arguments[i] = new Invoker.InstanceInvoker(arguments[i].get());
+            }
+        }
+        if (instanceListener == null) {
+            for (int i = 0; i < target.length; ++i) {
+                target[i] = binding.create(arguments);
+            }
+            return;
+        }
+        long[] nested = SelfTime.nested();
+        for (int i = 0; i < target.length; ++i) {
+            long outer = nested[0];
+            nested[0] = 0;
+            long start = System.nanoTime();
+            long nanos;
+            long inner;
+            try {
+                target[i] = binding.create(arguments);
+            } finally {
+                nanos = System.nanoTime() - start;
+                inner = nested[0];
+                nested[0] = outer + nanos;
+            }
+            instanceListener.provisioned(key, nanos, nanos - inner);
+        }
+    }
+
+    /**
+     * @return future of an instance of type, see instanceAsync(Key, Executor)
+     */
+    public <T> Future<T> instanceAsync(Class<T> type, Executor executor) {
+        return instanceAsync(Key.of(type), executor);
+    }
+
+    /**
+     * @return future of an instance specified by key. Independent dependencies (constructor and provider method
+     * arguments) are instantiated concurrently on the executor, each as soon as its own dependencies are, so a graph of
+     * blocking providers takes about as long as its slowest path instead of the sum. Singletons are shared with
+     * instance() and concurrent builds. Errors, including missing bindings, are reported by the future.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Future<T> instanceAsync(Key<T> key, Executor executor) {
+        return (Future<T>) (Future<?>) new ParallelBuild(this, executor, instanceListener).start(key);
+    }
+
     /**
      * @return provider of type
      */
+    @SuppressWarnings("unchecked")
     public <T> Provider<T> provider(Class<T> type) {
-        return provider(Key.of(type), null);
+        Binding binding = typeBindings.get(type);
+        if (binding == null) {
+            binding = linked(Key.of(type), null);
+            typeBindings.put(type, binding);
+        }
+        return (Provider<T>) binding.provider;
     }
 
     /**
@@ -71,133 +209,534 @@ public class Feather {
         return provider(key, null);
     }
 
+    /**
+     * Links the bindings of the modules and everything they depend on (including through injected Providers). Missing
+     * bindings and circular dependencies are reported up front instead of on first use.
+     */
+    public void validate() {
+        Set<Key> validated = new HashSet<>();
+        Deque<Key> keys = new ArrayDeque<>();
+        for (Binding binding : ownBindings()) {
+            keys.push(binding.key);
+        }
+        keys.addAll(deferred.keySet());
+        while (!keys.isEmpty()) {
+            Key key = keys.pop();
+            if (validated.add(key)) {
+                Binding binding = linked(key, null);
+                for (int i = 0; i < binding.dependencies.length; ++i) {
+                    keys.push(binding.dependencies[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Initializes the singletons of the modules, of the root types and of everything they depend on. Singletons are
+     * initialized concurrently on the executor, each as soon as the singletons it depends on are initialized. Returns
+     * when all are initialized, or throws the first error.
+     */
+    public void initSingletons(Executor executor, Class<?>... roots) {
+        for (Class<?> root : roots) {
+            provider(Key.of(root), null);
+        }
+        validate();
+        Map<Binding, Set<Binding>> dependencies = new HashMap<>();
+        Map<Binding, Set<Binding>> transitive = new HashMap<>();
+        for (Binding binding : ownBindings()) {
+            if (binding.singleton) {
+                dependencies.put(binding, singletonDependencies(binding, transitive));
+            }
+        }
+        new SingletonInitializer(dependencies).initialize(executor);
+    }
+
+    /**
+     * Fuses the non-singleton dependency graph of each root type into a plan instantiated by a single provider, without
+     * walking the providers of the dependencies. Singletons and injected Providers are still reached through their
+     * providers. Useful for types instantiated frequently, singleton roots are left as they are.
+     */
+    public void compile(Class<?>... roots) {
+        for (Class<?> root : roots) {
+            Key<?> key = Key.of(root);
+            Binding binding = linked(key, null);
+            if (!scoped(binding)) {
+                CompiledProvider.Builder plan = new CompiledProvider.Builder();
+                compile(binding, plan);
+                binding.provider = instanceListener != null ? new ListenedProvider<>(key, plan.build(), instanceListener) : plan.build();
+            }
+        }
+    }
+
+    /**
+     * Links every binding (see validate()) and moves them to a compact read-only table, for large graphs: less heap per
+     * binding and lookups without the nodes of a concurrent map. Types first requested after freezing are still bound,
+     * in a regular map. Meant to be called once the injector is configured, before it's used by other threads.
+     */
+    public void freeze() {
+        validate();
+        frozen = new FrozenBindings(ownBindings());
+        bindings = new ConcurrentHashMap<>(0);
+    }
+
     /**
      * Injects fields to the target object
      */
     public void injectFields(Object target) {
-        if (!injectFields.containsKey(target.getClass())) {
-            injectFields.put(target.getClass(), injectFields(target.getClass()));
-        }
-        for (Object[] f: injectFields.get(target.getClass())) {
-            Field field = (Field) f[0];
-            Key key = (Key) f[2];
-            try {
-                field.set(target, (boolean) f[1] ? provider(key) : instance(key));
-            } catch (Exception e) {
-                throw new FeatherException(String.format("Can't inject field %s in %s", field.getName(), target.getClass().getName()));
+        fieldPlan(target.getClass()).inject(target);
+    }
+
+    /**
+     * Injects fields to each target object, looking up the injection plan only when the class of the target changes
+     */
+    public void injectAllFields(Iterable<?> targets) {
+        Class<?> type = null;
+        FieldPlan plan = null;
+        for (Object target : targets) {
+            if (target.getClass() != type) {
+                type = target.getClass();
+                plan = fieldPlan(type);
             }
+            plan.inject(target);
         }
     }
 
     @SuppressWarnings("unchecked")
     private <T> Provider<T> provider(final Key<T> key, Set<Key> chain) {
-        if (!providers.containsKey(key)) {
-            final Constructor constructor = constructor(key);
-            final Provider<?>[] paramProviders = paramProviders(key, constructor.getParameterTypes(), constructor.getGenericParameterTypes(), constructor.getParameterAnnotations(), chain);
-            providers.put(key, singletonProvider(key, key.type.getAnnotation(Singleton.class), new Provider() {
-                        @Override
-                        public Object get() {
-                            try {
-                                return constructor.newInstance(params(paramProviders));
-                            } catch (Exception e) {
-                                throw new FeatherException(String.format("Can't instantiate %s", key.toString()), e);
-                            }
-                        }
-                    })
-            );
+        return (Provider<T>) linked(key, chain).provider;
+    }
+
+    /**
+     * @return provider of a dependency injected directly (not as a Provider or Lazy)
+     * @throws FeatherException if the dependency is pooled: nothing would release the injected instance
+     */
+    private Provider<?> injected(Key<?> key, Set<Key> chain) {
+        Provider<?> provider = provider(key, chain);
+        if (provider instanceof PoolScope.Pool) {
+            throw new FeatherException(String.format("%s is pooled, it can't be injected directly - inject a Provider and release its instances", key.toString()));
         }
-        return (Provider<T>) providers.get(key);
+        return provider;
     }
 
-    private void providerMethod(final Object module, final Method m) {
-        final Key key = Key.of(m.getReturnType(), qualifier(m.getAnnotations()));
-        if (providers.containsKey(key)) {
-            throw new FeatherException(String.format("%s has multiple providers, module %s", key.toString(), module.getClass()));
+    /**
+     * @return the linked binding of key, delegated to the parent if the key isn't the child's
+     */
+    Binding linked(Key<?> key, Set<Key> chain) {
+        Binding binding = own(key);
+        if (binding != null && binding.linked()) {
+            return binding;
+        }
+        long start = listener != null ? System.nanoTime() : 0;
+        if (binding == null) {
+            Binding created;
+            if (deferred.containsKey(key)) {
+                created = deferredBinding(key);
+            } else if (parent == null) {
+                created = newBinding(key);
+            } else if (owns(key)) {
+                created = copy(parent.definition(key));
+            } else {
+                return parent.linked(key, chain);
+            }
+            binding = bindings.putIfAbsent(key, created);
+            binding = binding != null ? binding : created;
         }
-        Singleton singleton = m.getAnnotation(Singleton.class) != null ? m.getAnnotation(Singleton.class) : m.getReturnType().getAnnotation(Singleton.class);
-        final Provider<?>[] paramProviders = paramProviders(
-                key,
-                m.getParameterTypes(),
-                m.getGenericParameterTypes(),
-                m.getParameterAnnotations(),
-                Collections.singleton(key)
-        );
-        providers.put(key, singletonProvider(key, singleton, new Provider() {
-                            @Override
-                            public Object get() {
-                                try {
-                                    return m.invoke(module, params(paramProviders));
-                                } catch (Exception e) {
-                                    throw new FeatherException(String.format("Can't instantiate %s with provider", key.toString()), e);
-                                }
-                            }
-                        }
-                )
-        );
+        if (!binding.linked()) {
+            link(binding, chain);
+            if (listener != null) {
+                listener.bindingLinked(key, System.nanoTime() - start);
+            }
+        }
+        return binding;
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> Provider<T> singletonProvider(final Key key, Singleton singleton, final Provider<T> provider) {
-        return singleton != null ? new Provider<T>() {
-            @Override
-            public T get() {
-                if (!singletons.containsKey(key)) {
-                    synchronized (singletons) {
-                        if (!singletons.containsKey(key)) {
-                            singletons.put(key, provider.get());
-                        }
+    /**
+     * @return how the binding of key is defined in this injector (source and dependencies), without creating,
+     * scoping or registering a binding, null if key can't be bound
+     */
+    private Binding definition(Key<?> key) {
+        Binding binding = own(key);
+        if (binding != null) {
+            return binding;
+        } else if (deferred.containsKey(key)) {
+            return deferredDefinition(key);
+        } else if (parent != null) {
+            return parent.definition(key);
+        }
+        try {
+            return newDefinition(key);
+        } catch (FeatherException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether a key not bound by a module of this child depends on one that is, directly or transitively
+     */
+    private boolean owns(Key<?> key) {
+        if (moduleKeys.length == 0) {
+            return false;
+        }
+        Set<Key<?>> reachable = parent.reachable(key);
+        for (Key<?> moduleKey : moduleKeys) {
+            if (reachable.contains(moduleKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return keys the binding of key depends on directly or transitively (including through injected Providers),
+     * computed once per key from the definitions, so probing doesn't create bindings in this injector
+     */
+    private Set<Key<?>> reachable(Key<?> key) {
+        Set<Key<?>> keyReachable = reachable.get(key);
+        if (keyReachable == null) {
+            Binding binding = definition(key);
+            if (binding == null) {
+                return Collections.emptySet();
+            }
+            keyReachable = new HashSet<>();
+            Deque<Key<?>> keys = new ArrayDeque<Key<?>>(Arrays.asList(binding.dependencies));
+            while (!keys.isEmpty()) {
+                Key<?> dependency = keys.pop();
+                if (keyReachable.add(dependency)) {
+                    Binding dependencyBinding = definition(dependency);
+                    if (dependencyBinding != null) {
+                        keys.addAll(Arrays.asList(dependencyBinding.dependencies));
                     }
                 }
-                return (T) singletons.get(key);
             }
-        } : provider;
-    }
-
-    private Provider<?>[] paramProviders(
-            final Key key,
-            Class<?>[] parameterClasses,
-            Type[] parameterTypes,
-            Annotation[][] annotations,
-            final Set<Key> chain
-    ) {
-        Provider<?>[] providers = new Provider<?>[parameterTypes.length];
-        for (int i = 0; i < parameterTypes.length; ++i) {
-            Class<?> parameterClass = parameterClasses[i];
-            Annotation qualifier = qualifier(annotations[i]);
-            Class<?> providerType = Provider.class.equals(parameterClass) ?
-                    (Class<?>) ((ParameterizedType) parameterTypes[i]).getActualTypeArguments()[0] :
-                    null;
-            if (providerType == null) {
-                final Key newKey = Key.of(parameterClass, qualifier);
-                final Set<Key> newChain = append(chain, key);
+            reachable.put(key, keyReachable);
+        }
+        return keyReachable;
+    }
+
+    /**
+     * @return whether the binding belongs to this injector (not delegated to the parent)
+     */
+    private boolean owned(Binding binding) {
+        return own(binding.key) == binding;
+    }
+
+    /**
+     * @return the binding of key created by this injector so far, null if there's none
+     */
+    private Binding own(Key<?> key) {
+        FrozenBindings frozen = this.frozen;
+        Binding binding = frozen != null ? frozen.get(key) : null;
+        return binding != null ? binding : bindings.get(key);
+    }
+
+    /**
+     * @return the bindings created by this injector so far
+     */
+    List<Binding> ownBindings() {
+        FrozenBindings frozen = this.frozen;
+        List<Binding> own = new ArrayList<>(frozen != null ? frozen.values() : Collections.<Binding>emptyList());
+        own.addAll(bindings.values());
+        return own;
+    }
+
+    /**
+     * @return a binding of this child defined the same way as the binding of the parent
+     */
+    private Binding copy(Binding template) {
+        Binding binding = new Binding(template.key, template.source, template.dependencies, template.providers, template.singleton, template.scope, template.invoker);
+        binding.provider = bindingProvider(binding);
+        return binding;
+    }
+
+    private Binding newBinding(Key<?> key) {
+        Binding binding = newDefinition(key);
+        binding.provider = bindingProvider(binding);
+        return binding;
+    }
+
+    /**
+     * @return binding of key through its generated factory or constructor, without a provider yet
+     */
+    private static Binding newDefinition(Key<?> key) {
+        Factory<?> factory = Metadata.factory(key.type);
+        Binding binding;
+        if (factory != null) {
+            binding = new Binding(key, factory, factory.dependencies(), factory.providers(), factory.singleton(), Metadata.scope(key.type), Invoker.of(factory));
+        } else {
+            Metadata.Injectable<Constructor<?>> constructor = Metadata.constructor(key);
+            binding = new Binding(
+                    key,
+                    constructor.member,
+                    constructor.dependencies,
+                    constructor.providers,
+                    constructor.singleton,
+                    constructor.scope,
+                    Invoker.of(constructor.member)
+            );
+        }
+        return binding;
+    }
+
+    /**
+     * @return the bindings of the module's provider methods, without providers yet
+     */
+    private List<Binding> moduleBindings(Object module) {
+        if (module instanceof Class) {
+            throw new FeatherException(String.format("%s provided as class instead of an instance.", ((Class) module).getName()));
+        }
+        long start = listener != null ? System.nanoTime() : 0;
+        List<Binding> moduleBindings = new ArrayList<>();
+        ModuleFactory moduleFactory = Metadata.moduleFactory(module.getClass());
+        if (moduleFactory != null) {
+            for (Factory<?> factory : moduleFactory.factories(module)) {
+                moduleBindings.add(new Binding(
+                        factory.key(),
+                        factory,
+                        factory.dependencies(),
+                        factory.providers(),
+                        factory.singleton(),
+                        Metadata.scope(factory.key().type),
+                        Invoker.of(factory)
+                ));
+            }
+        } else {
+            for (Metadata.Injectable<Method> m : Metadata.providers(module)) {
+                moduleBindings.add(new Binding(m.key, m.member, m.dependencies, m.providers, m.singleton, m.scope, Invoker.of(module, m.member)));
+            }
+        }
+        if (listener != null) {
+            listener.moduleScanned(module.getClass(), moduleBindings.size(), System.nanoTime() - start);
+        }
+        return moduleBindings;
+    }
+
+    /**
+     * Scans the modules concurrently on the executor, see Builder.parallel(Executor)
+     */
+    private List<Future<List<Binding>>> scan(List<Object> modules, Executor executor) {
+        List<Future<List<Binding>>> scanned = new ArrayList<>(modules.size());
+        for (final Object module : modules) {
+            FutureTask<List<Binding>> task = new FutureTask<>(new Callable<List<Binding>>() {
+                @Override
+                public List<Binding> call() {
+                    return moduleBindings(module);
+                }
+            });
+            executor.execute(task);
+            scanned.add(task);
+        }
+        return scanned;
+    }
+
+    private static List<Binding> scanned(Future<List<Binding>> scanned) {
+        try {
+            return scanned.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FeatherException("Interrupted while scanning modules", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FeatherException) {
+                throw (FeatherException) e.getCause();
+            }
+            throw new FeatherException("Can't scan modules", e.getCause());
+        }
+    }
+
+    private void register(Object module, List<Binding> moduleBindings) {
+        for (Binding binding : moduleBindings) {
+            checkUnique(module, binding.key);
+            binding.provider = bindingProvider(binding);
+            bindings.put(binding.key, binding);
+        }
+    }
+
+    /**
+     * Registers the provider methods of the module by their keys only, see Builder.lazy(). Generated factories are
+     * registered as they are.
+     */
+    private void defer(Object module) {
+        if (module instanceof Class || Metadata.moduleFactory(module.getClass()) != null) {
+            register(module, moduleBindings(module));
+        } else {
+            long start = listener != null ? System.nanoTime() : 0;
+            List<Metadata.ProviderMethod> providerMethods = Metadata.providerMethods(module);
+            for (Metadata.ProviderMethod providerMethod : providerMethods) {
+                checkUnique(module, providerMethod.key);
+                deferred.put(providerMethod.key, new Deferred(module, providerMethod));
+            }
+            if (listener != null) {
+                listener.moduleScanned(module.getClass(), providerMethods.size(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * @return a new binding of the deferred provider method of key
+     */
+    private Binding deferredBinding(Key<?> key) {
+        Binding binding = deferredDefinition(key);
+        binding.provider = bindingProvider(binding);
+        return binding;
+    }
+
+    /**
+     * @return binding of the deferred provider method of key, without a provider yet
+     */
+    private Binding deferredDefinition(Key<?> key) {
+        Deferred providerMethod = deferred.get(key);
+        Metadata.Injectable<Method> m = providerMethod.method.injectable();
+        return new Binding(m.key, m.member, m.dependencies, m.providers, m.singleton, m.scope, Invoker.of(providerMethod.module, m.member));
+    }
+
+    private void checkUnique(Object module, Key<?> key) {
+        if (bindings.containsKey(key) || deferred.containsKey(key)) {
+            throw new FeatherException(String.format("%s has multiple providers, module %s", key.toString(), module.getClass()));
+        }
+    }
+
+    /**
+     * Links the arguments of a binding directly to the providers of its dependencies. Dependencies are linked
+     * recursively, circular dependencies are detected along the chain. Injected Providers and Lazies are linked on
+     * first use, so they may close a cycle - unless their binding is linked already.
+     */
+    private void link(Binding binding, Set<Key> chain) {
+        Provider<?>[] arguments = binding.dependencies.length == 0 ? NO_ARGUMENTS : new Provider<?>[binding.dependencies.length];
+        boolean[] lazy = null;
+        for (int i = 0; i < arguments.length; ++i) {
+            final Key newKey = binding.dependencies[i];
+            if (!binding.providers[i]) {
+                Set<Key> newChain = append(chain, binding.key);
                 if (newChain.contains(newKey)) {
                     throw new FeatherException(String.format("Circular dependency: %s", chain(newChain, newKey)));
                 }
-                providers[i] = new Provider() {
-                    @Override
-                    public Object get() {
-                        return provider(newKey, newChain).get();
-                    }
-                };
+                arguments[i] = injected(newKey, newChain);
             } else {
-                final Key newKey = Key.of(providerType, qualifier);
-                providers[i] = new Provider() {
-                    @Override
-                    public Object get() {
-                        return provider(newKey, null);
+                if (lazy == null) {
+                    lazy = Metadata.lazyParameters(binding.source);
+                }
+                arguments[i] = indirect(newKey, lazy != null && lazy[i]);
+            }
+        }
+        binding.arguments = arguments;
+    }
+
+    /**
+     * @return singletons the binding depends on, directly or through non-singleton bindings. Injected Providers are
+     * not followed, they are resolved on demand.
+     */
+    private Set<Binding> singletonDependencies(Binding binding, Map<Binding, Set<Binding>> transitive) {
+        Set<Binding> singletons = new HashSet<>();
+        for (int i = 0; i < binding.dependencies.length; ++i) {
+            if (!binding.providers[i]) {
+                Binding dependency = linked(binding.dependencies[i], null);
+                if (dependency.singleton) {
+                    if (owned(dependency)) {
+                        singletons.add(dependency);
+                    }
+                } else {
+                    if (!transitive.containsKey(dependency)) {
+                        transitive.put(dependency, singletonDependencies(dependency, transitive));
                     }
-                };
+                    singletons.addAll(transitive.get(dependency));
+                }
             }
         }
-        return providers;
+        return singletons;
+    }
+
+    private int compile(Binding binding, CompiledProvider.Builder plan) {
+        int[] slots = new int[binding.dependencies.length];
+        for (int i = 0; i < slots.length; ++i) {
+            Provider<?> argument = binding.arguments[i];
+            Binding dependency = linked(binding.dependencies[i], null);
+            slots[i] = !binding.providers[i] && !scoped(dependency) ?
+                    compile(dependency, plan) :
+                    plan.external(binding.dependencies[i], argument);
+        }
+        return plan.invoke(binding.key, binding.invoker, slots);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Provider<?> bindingProvider(Binding binding) {
+        if (binding.singleton) {
+            return new SingletonProvider<>(binding.key, binding, listener);
+        }
+        Provider<Object> unscoped = instanceListener != null ? new ListenedProvider<>(binding.key, binding, instanceListener) : binding;
+        Scoping scoping = binding.scope != null ? scopes.get(binding.scope) : null;
+        return scoping != null ? scoping.scope((Key<Object>) binding.key, unscoped) : unscoped;
+    }
+
+    /**
+     * @return whether instances of the binding are held by a scope, including singletons
+     */
+    boolean scoped(Binding binding) {
+        return binding.singleton || (binding.scope != null && scopes.containsKey(binding.scope));
+    }
+
+    /**
+     * @return provider of the value of an injected Provider (lazy false) or Lazy of key
+     */
+    private Provider<?> indirect(Key<?> key, boolean lazy) {
+        Binding linked = own(key);
+        Provider<?> providerOf = linked != null && linked.linked() ? new Invoker.InstanceInvoker(linked.provider) : providerOf(key);
+        return lazy ? lazyOf(providerOf) : providerOf;
+    }
+
+    /**
+     * @return a provider of a new Lazy per injection, of the provider providerOf provides
+     */
+    private static Provider<?> lazyOf(final Provider<?> providerOf) {
+        return new Provider<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object get() {
+                return new LazyInstance<>((Provider<Object>) providerOf.get());
+            }
+        };
     }
 
-    private static Object[] params(Provider<?>[] paramProviders) {
-        Object[] params = new Object[paramProviders.length];
-        for (int i = 0; i < paramProviders.length; ++i) {
-            params[i] = paramProviders[i].get();
+    /**
+     * @return a provider of the provider of key, linked on first use so it may close a cycle
+     */
+    private Provider<?> providerOf(final Key<?> key) {
+        return new Provider<Object>() {
+            private volatile Provider<?> provider;
+
+            @Override
+            public Object get() {
+                Provider<?> linked = provider;
+                if (linked == null) {
+                    provider = linked = provider(key, null);
+                }
+                return linked;
+            }
+        };
+    }
+
+    /**
+     * @return the field injection plan of the class, created once. Values are linked to the providers of the fields,
+     * Provider and Lazy fields on first use unless their binding is linked already.
+     */
+    private FieldPlan fieldPlan(Class<?> type) {
+        FieldPlan plan = fieldPlans.get(type);
+        if (plan == null) {
+            long start = listener != null ? System.nanoTime() : 0;
+            FieldInjector<Object> injector = Metadata.fieldInjector(type);
+            Key<?>[] keys = injector.dependencies();
+            boolean[] providers = injector.providers();
+            boolean[] lazy = Metadata.lazyFields(type);
+            Provider<?>[] values = new Provider<?>[keys.length];
+            for (int i = 0; i < keys.length; ++i) {
+                values[i] = providers[i] ? indirect(keys[i], lazy != null && lazy[i]) : injected(keys[i], null);
+            }
+            FieldPlan created = new FieldPlan(injector, values);
+            plan = fieldPlans.putIfAbsent(type, created);
+            plan = plan != null ? plan : created;
+            if (listener != null) {
+                listener.fieldsPlanned(type, System.nanoTime() - start);
+            }
         }
-        return params;
+        return plan;
     }
 
     private static Set<Key> append(Set<Key> set, Key newKey) {
@@ -210,38 +749,6 @@ public class Feather {
         }
     }
 
-    private static Object[][] injectFields(Class<?> target) {
-        Set<Field> fields = fields(target);
-        Object[][] fs = new Object[fields.size()][];
-        int i = 0;
-        for (Field f : fields) {
-            Class<?> providerType = f.getType().equals(Provider.class) ?
-                    (Class<?>) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0] :
-                    null;
-            fs[i++] = new Object[]{
-                    f,
-                    providerType != null,
-                    Key.of(providerType != null ? providerType : f.getType(), qualifier(f.getAnnotations()))
-            };
-        }
-        return fs;
-    }
-
-    private static Set<Field> fields(Class<?> type) {
-        Class<?> current = type;
-        Set<Field> fields = new HashSet<>();
-        while (!current.equals(Object.class)) {
-            for (Field field : current.getDeclaredFields()) {
-                if (field.isAnnotationPresent(Inject.class)) {
-                    field.setAccessible(true);
-                    fields.add(field);
-                }
-            }
-            current = current.getSuperclass();
-        }
-        return fields;
-    }
-
     private static String chain(Set<Key> chain, Key lastKey) {
         StringBuilder chainString = new StringBuilder();
         for (Key key : chain) {
@@ -250,59 +757,85 @@ public class Feather {
         return chainString.append(lastKey.toString()).toString();
     }
 
-    private static Constructor constructor(Key key) {
-        Constructor inject = null;
-        Constructor noarg = null;
-        for (Constructor c : key.type.getDeclaredConstructors()) {
-            if (c.isAnnotationPresent(Inject.class)) {
-                if (inject == null) {
-                    inject = c;
-                } else {
-                    throw new FeatherException(String.format("%s has multiple @Inject constructors", key.type));
-                }
-            } else if (c.getParameterTypes().length == 0) {
-                noarg = c;
-            }
-        }
-        Constructor constructor = inject != null ? inject : noarg;
-        if (constructor != null) {
-            constructor.setAccessible(true);
-            return constructor;
-        } else {
-            throw new FeatherException(String.format("%s doesn't have an @Inject or no-arg constructor, or a module provider", key.type.getName()));
+    /**
+     * A provider method of a module registered without analyzing its parameters
+     */
+    private static class Deferred {
+        final Object module;
+        final Metadata.ProviderMethod method;
+
+        Deferred(Object module, Metadata.ProviderMethod method) {
+            this.module = module;
+            this.method = method;
         }
     }
 
-    private static Set<Method> providers(Class<?> type) {
-        Class<?> current = type;
-        Set<Method> providers = new HashSet<>();
-        while (!current.equals(Object.class)) {
-            for (Method method : current.getDeclaredMethods()) {
-                if (method.isAnnotationPresent(Provides.class) && (type.equals(current) || !providerInSubClass(method, providers))) {
-                    method.setAccessible(true);
-                    providers.add(method);
-                }
-            }
-            current = current.getSuperclass();
+    /**
+     * Configures Feather, eg Feather.builder().modules(new Module()).listener(new ProvisionMetrics()).build()
+     */
+    public static class Builder {
+        private final List<Object> modules = new ArrayList<>();
+        private final Map<Class<? extends Annotation>, Scoping> scopes = new HashMap<>(0);
+        private ProvisionListener listener;
+        private Executor executor;
+        private boolean lazy;
+
+        private Builder() {
         }
-        return providers;
-    }
 
-    private static Annotation qualifier(Annotation[] annotations) {
-        for (Annotation annotation : annotations) {
-            if (annotation.annotationType().isAnnotationPresent(Qualifier.class)) {
-                return annotation;
-            }
+        public Builder modules(Object... modules) {
+            return modules(Arrays.asList(modules));
         }
-        return null;
-    }
 
-    private static boolean providerInSubClass(Method method, Set<Method> discoveredMethods) {
-        for (Method discovered : discoveredMethods) {
-            if (discovered.getName().equals(method.getName()) && Arrays.equals(method.getParameterTypes(), discovered.getParameterTypes())) {
-                return true;
+        public Builder modules(Iterable<?> modules) {
+            for (Object module : modules) {
+                this.modules.add(module);
             }
+            return this;
+        }
+
+        /**
+         * Reports the instances created by Feather and the one-off costs of scanning modules and resolving bindings to
+         * the listener. Without a listener nothing is measured.
+         */
+        public Builder listener(ProvisionListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Instances of bindings annotated with the scope annotation are provided through the scope, eg
+         * scope(RequestScoped.class, new ContextScope()). Scope annotations without a registered scope are ignored.
+         * Child injectors use the scopes of their parent.
+         */
+        public Builder scope(Class<? extends Annotation> annotation, Scoping scope) {
+            scopes.put(annotation, scope);
+            return this;
+        }
+
+        /**
+         * Scans the modules (provider methods or generated factories) concurrently on the executor, eg for applications
+         * with hundreds of modules. Bindings are still registered in module order, duplicates are reported as without
+         * an executor.
+         */
+        public Builder parallel(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Registers the @Provides methods of the modules by the keys they provide only, their parameters are analyzed
+         * and their invokers created on first use. Creating Feather then costs about the bindings used instead of the
+         * ones declared, eg when a process uses a fraction of a large module set. Missing bindings of unused provider
+         * methods are reported by validate() only. Modules aren't scanned in parallel then.
+         */
+        public Builder lazy() {
+            this.lazy = true;
+            return this;
+        }
+
+        public Feather build() {
+            return new Feather(this, null);
         }
-        return false;
     }
 }
@@ -0,0 +1,23 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+
+/**
+ * Reflection-free injector of @Inject fields, generated by feather-compiler.
+ */
+public interface FieldInjector<T> {
+    /**
+     * @return keys of the injected fields
+     */
+    Key<?>[] dependencies();
+
+    /**
+     * @return for each field whether it's injected as a Provider
+     */
+    boolean[] providers();
+
+    /**
+     * Injects the fields of the target, values[i].get() being the value of the i-th field
+     */
+    void inject(T target, Provider<?>[] values);
+}
@@ -0,0 +1,65 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.lang.reflect.Field;
+
+/**
+ * Field injection plan of a class: a field injector (generated, MethodHandle or reflection based) and the providers
+ * of the field values, linked once per class.
+ */
+class FieldPlan {
+    private final FieldInjector<Object> injector;
+    private final Provider<?>[] values;
+
+    FieldPlan(FieldInjector<Object> injector, Provider<?>[] values) {
+        this.injector = injector;
+        this.values = values;
+    }
+
+    void inject(Object target) {
+        injector.inject(target, values);
+    }
+
+    /**
+     * @return injector of the fields through MethodHandle setters if available, reflection otherwise
+     */
+    static FieldInjector<Object> injector(Field[] fields, Key<?>[] keys, boolean[] providers) {
+        return Invoker.methodHandles ?
+                MethodHandleFieldInjector.of(fields, keys, providers) :
+                new ReflectionFieldInjector(fields, keys, providers);
+    }
+
+    static class ReflectionFieldInjector implements FieldInjector<Object> {
+        private final Field[] fields;
+        private final Key<?>[] keys;
+        private final boolean[] providers;
+
+        ReflectionFieldInjector(Field[] fields, Key<?>[] keys, boolean[] providers) {
+            this.fields = fields;
+            this.keys = keys;
+            this.providers = providers;
+        }
+
+        @Override
+        public Key<?>[] dependencies() {
+            return keys;
+        }
+
+        @Override
+        public boolean[] providers() {
+            return providers;
+        }
+
+        @Override
+        public void inject(Object target, Provider<?>[] values) {
+            for (int i = 0; i < fields.length; ++i) {
+                Object value = values[i].get();
+                try {
+                    fields[i].set(target, value);
+                } catch (Exception e) {
+                    throw new FeatherException(String.format("Can't inject field %s in %s", fields[i].getName(), target.getClass().getName()));
+                }
+            }
+        }
+    }
+}
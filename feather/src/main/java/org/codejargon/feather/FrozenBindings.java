@@ -0,0 +1,63 @@
+package org.codejargon.feather;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable open-addressed table of bindings with linear probing, keys and bindings in parallel arrays. Load factor
+ * is at most 0.5, keys are mostly interned so a hit is usually an identity comparison. Hashes are scattered by a
+ * multiplicative (Fibonacci) hash, the hashes of keys named eg "binding1", "binding2" are clustered otherwise.
+ */
+class FrozenBindings {
+    private final Key<?>[] keys;
+    private final Binding[] bindings;
+    private final int mask;
+    private final int shift;
+    private final int size;
+
+    FrozenBindings(Collection<Binding> all) {
+        int capacity = Integer.highestOneBit(Math.max(2, all.size()) * 2 - 1) << 1;
+        keys = new Key<?>[capacity];
+        bindings = new Binding[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        size = all.size();
+        for (Binding binding : all) {
+            int i = index(binding.key);
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = binding.key;
+            bindings[i] = binding;
+        }
+    }
+
+    Binding get(Key<?> key) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            Key<?> candidate = keys[i];
+            if (candidate == key) {
+                return bindings[i];
+            } else if (candidate == null) {
+                return null;
+            } else if (candidate.equals(key)) {
+                return bindings[i];
+            }
+        }
+    }
+
+    List<Binding> values() {
+        Binding[] values = new Binding[size];
+        int j = 0;
+        for (Binding binding : bindings) {
+            if (binding != null) {
+                values[j++] = binding;
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    private int index(Key<?> key) {
+        return (key.hashCode() * 0x9E3779B9) >>> shift;
+    }
+}
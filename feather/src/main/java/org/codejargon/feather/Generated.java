@@ -0,0 +1,55 @@
+package org.codejargon.feather;
+
+/**
+ * Looks up the classes generated by feather-compiler. A generated class is named after the binary name of its
+ * target without the package, '_' doubled and '$' replaced by "_0" (so Outer$Inner and Outer_Inner don't collide),
+ * with a suffix, in the package of the target.
+ */
+class Generated {
+    static final String FACTORY = "_FeatherFactory";
+    static final String MODULE = "_FeatherModule";
+    static final String INJECTOR = "_FeatherInjector";
+
+    private Generated() {
+    }
+
+    static Factory<?> factory(Class<?> type) {
+        return (Factory<?>) instance(type, FACTORY);
+    }
+
+    static ModuleFactory<?> moduleFactory(Class<?> module) {
+        return (ModuleFactory<?>) instance(module, MODULE);
+    }
+
+    static FieldInjector<?> fieldInjector(Class<?> target) {
+        return (FieldInjector<?>) instance(target, INJECTOR);
+    }
+
+    static String name(Class<?> type, String suffix) {
+        String name = type.getName();
+        int simpleName = name.lastIndexOf('.') + 1;
+        return name.substring(0, simpleName) + name.substring(simpleName).replace("_", "__").replace("$", "_0") + suffix;
+    }
+
+    private static Object instance(Class<?> type, String suffix) {
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null || type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        if (StartupIndex.notGenerated(type, suffix)) {
+            return null;
+        }
+        Class<?> generated;
+        try {
+            generated = Class.forName(name(type, suffix), true, classLoader);
+        } catch (ClassNotFoundException e) {
+            StartupIndex.recordNotGenerated(type, suffix);
+            return null;
+        }
+        try {
+            return generated.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new FeatherException(String.format("Can't instantiate generated %s", generated.getName()), e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a constructor or provider method, arguments[i].get() being the i-th argument. MethodHandle based invokers
+ * are used when java.lang.invoke is available (not the case on older Android versions), reflection otherwise.
+ * System property feather.invoker=reflection forces reflection.
+ */
+abstract class Invoker {
+    static final boolean methodHandles = methodHandles();
+
+    abstract Object invoke(Provider<?>[] arguments) throws Throwable;
+
+    /**
+     * Invokes with frame[slots[i]] being the i-th argument
+     */
+    abstract Object invoke(Object[] frame, int[] slots) throws Throwable;
+
+    static Invoker of(Constructor<?> constructor) {
+        return methodHandles ? MethodHandleInvoker.of(constructor) : new ConstructorInvoker(constructor);
+    }
+
+    static Invoker of(Object module, Method method) {
+        return methodHandles ? MethodHandleInvoker.of(module, method) : new MethodInvoker(module, method);
+    }
+
+    static Invoker of(Factory<?> factory) {
+        return new FactoryInvoker(factory);
+    }
+
+    static Invoker of(Object instance) {
+        return new InstanceInvoker(instance);
+    }
+
+    static Object[] arguments(Provider<?>[] arguments) {
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; ++i) {
+            values[i] = arguments[i].get();
+        }
+        return values;
+    }
+
+    static Object[] arguments(Object[] frame, int[] slots) {
+        Object[] values = new Object[slots.length];
+        for (int i = 0; i < slots.length; ++i) {
+            values[i] = frame[slots[i]];
+        }
+        return values;
+    }
+
+    private static boolean methodHandles() {
+        if ("reflection".equals(System.getProperty("feather.invoker"))) {
+            return false;
+        }
+        try {
+            Class.forName("java.lang.invoke.MethodHandles");
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    static class ConstructorInvoker extends Invoker {
+        private final Constructor<?> constructor;
+
+        ConstructorInvoker(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return invoke(arguments(arguments));
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return invoke(arguments(frame, slots));
+        }
+
+        private Object invoke(Object[] arguments) throws Throwable {
+            try {
+                return constructor.newInstance(arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    static class MethodInvoker extends Invoker {
+        private final Object module;
+        private final Method method;
+
+        MethodInvoker(Object module, Method method) {
+            this.module = module;
+            this.method = method;
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return invoke(arguments(arguments));
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return invoke(arguments(frame, slots));
+        }
+
+        private Object invoke(Object[] arguments) throws Throwable {
+            try {
+                return method.invoke(module, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    static class FactoryInvoker extends Invoker {
+        private final Factory<?> factory;
+
+        FactoryInvoker(Factory<?> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return factory.create(arguments);
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            Provider<?>[] arguments = new Provider<?>[slots.length];
+            for (int i = 0; i < slots.length; ++i) {
+                arguments[i] = new InstanceInvoker(frame[slots[i]]);
+            }
+            return factory.create(arguments);
+        }
+    }
+
+    static class InstanceInvoker extends Invoker implements Provider<Object> {
+        private final Object instance;
+
+        InstanceInvoker(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public Object get() {
+            return instance;
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) {
+            return instance;
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) {
+            return instance;
+        }
+    }
+}
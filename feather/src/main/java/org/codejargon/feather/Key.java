@@ -2,37 +2,60 @@ package org.codejargon.feather;
 
 import javax.inject.Named;
 import java.lang.annotation.Annotation;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Type and optional qualifier of a binding. Keys are interned per type, so looking one up doesn't allocate and they
+ * are usually compared by identity. Only the first MAX_NAMES names of a type are interned, so names built at run time
+ * don't grow the table without limit, and qualifier types of a class loader the type doesn't see (eg a plugin's
+ * qualifier on a shared type) aren't, so the type doesn't keep the loader alive. The hash is computed once.
+ */
 public class Key<T> {
+    private static final int MAX_NAMES = 256;
+    private static final ClassCache<Keys> keys = new ClassCache<Keys>() {
+        @Override
+        Keys compute(Class<?> type) {
+            return new Keys(type);
+        }
+    };
+
     final Class<T> type;
     final Class<? extends Annotation> qualifier;
     final String name;
+    private final int hash;
 
     private Key(Class<T> type, Class<? extends Annotation> qualifier, String name) {
         this.type = type;
         this.qualifier = qualifier;
         this.name = name;
+        this.hash = hash(type, qualifier, name);
     }
 
     /**
      * @return Key for a given type
      */
+    @SuppressWarnings("unchecked")
     public static <T> Key<T> of(Class<T> type) {
-        return new Key<>(type, null, null);
+        return (Key<T>) keys.get(type).unqualified;
     }
 
     /**
      * @return Key for a given type and qualifier annotation type
      */
+    @SuppressWarnings("unchecked")
     public static <T> Key<T> of(Class<T> type, Class<? extends Annotation> qualifier) {
-        return new Key<>(type, qualifier, null);
+        return qualifier != null ? (Key<T>) keys.get(type).qualified(qualifier) : of(type);
     }
 
     /**
-     * @return Key for a given type and name (@Named value)
+     * @return Key for a given type and name (@Named value), for a null name the key of a @Named without a value, equal
+     * to Key.of(type, Named.class)
      */
+    @SuppressWarnings("unchecked")
     public static <T> Key<T> of(Class<T> type, String name) {
-        return new Key<>(type, Named.class, name);
+        return name != null ? (Key<T>) keys.get(type).named(name) : of(type, Named.class);
     }
 
     static <T> Key<T> of(Class<T> type, Annotation qualifier) {
@@ -52,6 +75,7 @@ public class Key<T> {
 
         Key<?> key = (Key<?>) o;
 
+        if (hash != key.hash) return false;
         if (!type.equals(key.type)) return false;
         if (qualifier != null ? !qualifier.equals(key.qualifier) : key.qualifier != null) return false;
         return !(name != null ? !name.equals(key.name) : key.name != null);
@@ -60,10 +84,7 @@ public class Key<T> {
 
     @Override
     public int hashCode() {
-        int result = type.hashCode();
-        result = 31 * result + (qualifier != null ? qualifier.hashCode() : 0);
-        result = 31 * result + (name != null ? name.hashCode() : 0);
-        return result;
+        return hash;
     }
 
     @Override
@@ -72,5 +93,81 @@ public class Key<T> {
         return type.getName() + suffix;
     }
 
+    private static int hash(Class<?> type, Class<? extends Annotation> qualifier, String name) {
+        int result = type.hashCode();
+        result = 31 * result + (qualifier != null ? qualifier.hashCode() : 0);
+        result = 31 * result + (name != null ? name.hashCode() : 0);
+        return result;
+    }
+
+    /**
+     * Interned keys of a type, qualified ones by qualifier annotation type or by name
+     */
+    private static class Keys {
+        final Key<?> unqualified;
+        private final Class<?> type;
+        private final ConcurrentMap<Object, Key<?>> qualified = new ConcurrentHashMap<>(0);
+        private final AtomicInteger names = new AtomicInteger();
+
+        Keys(Class<?> type) {
+            this.type = type;
+            this.unqualified = new Key<>(type, null, null);
+        }
+
+        /**
+         * @return the interned key of the qualifier type, or a new one if the type doesn't see the qualifier's loader
+         */
+        Key<?> qualified(Class<? extends Annotation> qualifier) {
+            Key<?> key = qualified.get(qualifier);
+            if (key == null) {
+                if (!visible(qualifier.getClassLoader())) {
+                    return new Key<>(type, qualifier, null);
+                }
+                key = qualified(qualifier, qualifier, null);
+            }
+            return key;
+        }
+
+        private Key<?> qualified(Object id, Class<? extends Annotation> qualifier, String name) {
+            Key<?> key = qualified.get(id);
+            if (key == null) {
+                Key<?> created = new Key<>(type, qualifier, name);
+                key = qualified.putIfAbsent(id, created);
+                key = key != null ? key : created;
+            }
+            return key;
+        }
 
+        /**
+         * @return the interned key of name, or a new one if the type has MAX_NAMES names interned already
+         */
+        Key<?> named(String name) {
+            Key<?> key = qualified.get(name);
+            if (key == null) {
+                if (names.get() >= MAX_NAMES) {
+                    return new Key<>(type, Named.class, name);
+                }
+                names.incrementAndGet();
+                key = qualified(name, Named.class, name);
+            }
+            return key;
+        }
+
+        /**
+         * @return whether loader is the bootstrap loader, or the loader (or an ancestor) of the type or of Key: those
+         * are kept alive by the type's keys anyway
+         */
+        private boolean visible(ClassLoader loader) {
+            return loader == null || ancestor(loader, type.getClassLoader()) || ancestor(loader, Key.class.getClassLoader());
+        }
+
+        private static boolean ancestor(ClassLoader loader, ClassLoader of) {
+            for (ClassLoader l = of; l != null; l = l.getParent()) {
+                if (l == loader) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.codejargon.feather;
+
+/**
+ * Injected in place of an instance whose creation is deferred to the first get(), eg
+ * <pre>
+ * &#64;Inject
+ * public A(Lazy&lt;B&gt; b)
+ * </pre>
+ * Unlike a Provider, the instance is created at most once per injection point and the same one is returned from then
+ * on.
+ */
+public interface Lazy<T> {
+    /**
+     * @return the instance, created on the first call
+     */
+    T get();
+}
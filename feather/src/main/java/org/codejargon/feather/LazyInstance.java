@@ -0,0 +1,30 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+
+/**
+ * Lazy of an injection point. Once created a get() is a single volatile read, the provider is released; creation is
+ * synchronized so concurrent first calls create a single instance.
+ */
+class LazyInstance<T> implements Lazy<T> {
+    private volatile Provider<T> provider;
+    private T instance;
+
+    LazyInstance(Provider<T> provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public T get() {
+        return provider == null ? instance : create();
+    }
+
+    private synchronized T create() {
+        Provider<T> current = provider;
+        if (current != null) {
+            instance = current.get();
+            provider = null;
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,39 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+
+/**
+ * Reports the instances of a non-singleton binding to the listener, with their self time (see SelfTime). Only used
+ * when a listener is set, so bindings aren't measured otherwise.
+ */
+class ListenedProvider<T> implements Provider<T> {
+    private final Key<?> key;
+    private final Provider<T> provider;
+    private final ProvisionListener listener;
+
+    ListenedProvider(Key<?> key, Provider<T> provider, ProvisionListener listener) {
+        this.key = key;
+        this.provider = provider;
+        this.listener = listener;
+    }
+
+    @Override
+    public T get() {
+        long[] nested = SelfTime.nested();
+        long outer = nested[0];
+        nested[0] = 0;
+        long start = System.nanoTime();
+        long nanos;
+        long inner;
+        T instance;
+        try {
+            instance = provider.get();
+        } finally {
+            nanos = System.nanoTime() - start;
+            inner = nested[0];
+            nested[0] = outer + nanos;
+        }
+        listener.provisioned(key, nanos, nanos - inner);
+        return instance;
+    }
+}
@@ -0,0 +1,405 @@
+package org.codejargon.feather;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Qualifier;
+import javax.inject.Scope;
+import javax.inject.Singleton;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Reflection metadata of injected classes and modules, scanned once per class and shared by all Feather instances:
+ * constructors, provider methods, injected fields, qualifier and scope annotation types and generated factories.
+ * Constructors, provider methods and injected fields are taken from the StartupIndex when one is loaded.
+ */
+final class Metadata {
+    private static final ClassCache<Injectable<Constructor<?>>> constructors = new ClassCache<Injectable<Constructor<?>>>() {
+        @Override
+        Injectable<Constructor<?>> compute(Class<?> type) {
+            Injectable<Constructor<?>> injectable = StartupIndex.constructor(type);
+            if (injectable == null) {
+                Constructor<?> constructor = constructor(type);
+                injectable = new Injectable<Constructor<?>>(
+                        constructor,
+                        Key.of(type),
+                        parameterKeys(constructor.getParameterTypes(), constructor.getGenericParameterTypes(), constructor.getParameterAnnotations()),
+                        providerParameters(constructor.getParameterTypes()),
+                        type.isAnnotationPresent(Singleton.class),
+                        scope(type)
+                );
+                StartupIndex.recordConstructor(type, injectable);
+            }
+            return injectable;
+        }
+    };
+    private static final ClassCache<List<ProviderMethod>> providerMethods = new ClassCache<List<ProviderMethod>>() {
+        @Override
+        List<ProviderMethod> compute(Class<?> module) {
+            List<ProviderMethod> providerMethods = new ArrayList<>();
+            for (Method m : providers(module)) {
+                Annotation[] annotations = m.getAnnotations();
+                providerMethods.add(new ProviderMethod(
+                        m,
+                        Key.of(m.getReturnType(), qualifier(annotations)),
+                        m.isAnnotationPresent(Singleton.class) || m.getReturnType().isAnnotationPresent(Singleton.class),
+                        scope(annotations) != null ? scope(annotations) : scope(m.getReturnType())
+                ));
+            }
+            return Collections.unmodifiableList(providerMethods);
+        }
+    };
+    private static final ClassCache<List<Injectable<Method>>> providers = new ClassCache<List<Injectable<Method>>>() {
+        @Override
+        List<Injectable<Method>> compute(Class<?> module) {
+            List<Injectable<Method>> indexed = StartupIndex.providers(module);
+            if (indexed != null) {
+                return indexed;
+            }
+            List<Injectable<Method>> injectables = new ArrayList<>();
+            for (ProviderMethod providerMethod : providerMethods.get(module)) {
+                injectables.add(providerMethod.injectable());
+            }
+            StartupIndex.recordProviders(module, injectables);
+            return Collections.unmodifiableList(injectables);
+        }
+    };
+    private static final ClassCache<InjectedFields> fieldInjectors = new ClassCache<InjectedFields>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        InjectedFields compute(Class<?> type) {
+            FieldInjector<Object> generated = (FieldInjector<Object>) Generated.fieldInjector(type);
+            if (generated != null) {
+                return new InjectedFields(generated, null);
+            }
+            InjectedFields injected = StartupIndex.fieldInjector(type);
+            if (injected == null) {
+                Field[] fields = fields(type);
+                Key<?>[] keys = fieldKeys(fields);
+                boolean[] providers = fieldProviders(fields);
+                boolean[] lazy = lazyFields(fields);
+                injected = new InjectedFields(FieldPlan.injector(fields, keys, providers), lazy);
+                StartupIndex.recordFields(type, fields, keys, providers, lazy);
+            }
+            return injected;
+        }
+    };
+    private static final ClassCache<Factory<?>> factories = new ClassCache<Factory<?>>() {
+        @Override
+        Factory<?> compute(Class<?> type) {
+            return Generated.factory(type);
+        }
+    };
+    private static final ClassCache<ModuleFactory<?>> moduleFactories = new ClassCache<ModuleFactory<?>>() {
+        @Override
+        ModuleFactory<?> compute(Class<?> module) {
+            return Generated.moduleFactory(module);
+        }
+    };
+    private static final ClassCache<Boolean> qualifiers = new ClassCache<Boolean>() {
+        @Override
+        Boolean compute(Class<?> annotationType) {
+            return annotationType.isAnnotationPresent(Qualifier.class);
+        }
+    };
+    private static final ClassCache<Boolean> scopeAnnotations = new ClassCache<Boolean>() {
+        @Override
+        Boolean compute(Class<?> annotationType) {
+            return annotationType.isAnnotationPresent(Scope.class) && !annotationType.equals(Singleton.class);
+        }
+    };
+    private static final ClassCache<Class<? extends Annotation>> typeScopes = new ClassCache<Class<? extends Annotation>>() {
+        @Override
+        Class<? extends Annotation> compute(Class<?> type) {
+            return scope(type.getAnnotations());
+        }
+    };
+
+    private Metadata() {
+    }
+
+    /**
+     * @return the @Inject or no-arg constructor of the type with its dependencies
+     */
+    static Injectable<Constructor<?>> constructor(Key<?> key) {
+        return constructors.get(key.type);
+    }
+
+    /**
+     * @return @Provides methods of a module and its superclasses, overridden methods excluded
+     */
+    static List<Injectable<Method>> providers(Object module) {
+        return providers.get(module.getClass());
+    }
+
+    /**
+     * @return injector of the @Inject fields of the type, generated if available
+     */
+    static FieldInjector<Object> fieldInjector(Class<?> type) {
+        return fieldInjectors.get(type).injector;
+    }
+
+    /**
+     * @return @Provides methods of a module and its superclasses with the keys they provide, their parameters not
+     * analyzed yet
+     */
+    static List<ProviderMethod> providerMethods(Object module) {
+        return providerMethods.get(module.getClass());
+    }
+
+    /**
+     * @return for each parameter of a constructor or provider method whether it's a Lazy, null if none is
+     */
+    static boolean[] lazyParameters(Object member) {
+        if (member instanceof Constructor) {
+            return lazy(((Constructor<?>) member).getParameterTypes());
+        } else if (member instanceof Method) {
+            return lazy(((Method) member).getParameterTypes());
+        }
+        return null;
+    }
+
+    /**
+     * @return for each injected field of the type whether it's a Lazy, null if none is. Generated injectors have no
+     * Lazy fields, feather-compiler leaves those to reflection.
+     */
+    static boolean[] lazyFields(Class<?> type) {
+        return fieldInjectors.get(type).lazy;
+    }
+
+    static Factory<?> factory(Class<?> type) {
+        return factories.get(type);
+    }
+
+    static ModuleFactory<?> moduleFactory(Class<?> module) {
+        return moduleFactories.get(module);
+    }
+
+    /**
+     * @return the scope annotation type of the type other than @Singleton, null if there's none
+     */
+    static Class<? extends Annotation> scope(Class<?> type) {
+        return typeScopes.get(type);
+    }
+
+    static Annotation qualifier(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (qualifiers.get(annotation.annotationType())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static Class<? extends Annotation> scope(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (scopeAnnotations.get(annotation.annotationType())) {
+                return annotation.annotationType();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A constructor or provider method with the key it provides and its dependencies
+     */
+    static class Injectable<M> {
+        final M member;
+        final Key<?> key;
+        final Key<?>[] dependencies;
+        final boolean[] providers;
+        final boolean singleton;
+        final Class<? extends Annotation> scope;
+
+        Injectable(M member, Key<?> key, Key<?>[] dependencies, boolean[] providers, boolean singleton, Class<? extends Annotation> scope) {
+            this.member = member;
+            this.key = key;
+            this.dependencies = dependencies;
+            this.providers = providers;
+            this.singleton = singleton;
+            this.scope = scope;
+        }
+    }
+
+    /**
+     * The injector of the @Inject fields of a class, with the Lazy ones flagged (null if none is)
+     */
+    static class InjectedFields {
+        final FieldInjector<Object> injector;
+        final boolean[] lazy;
+
+        InjectedFields(FieldInjector<Object> injector, boolean[] lazy) {
+            this.injector = injector;
+            this.lazy = lazy;
+        }
+    }
+
+    /**
+     * A provider method with the key it provides, its parameters are analyzed on first use
+     */
+    static class ProviderMethod {
+        final Method member;
+        final Key<?> key;
+        final boolean singleton;
+        final Class<? extends Annotation> scope;
+        private volatile Injectable<Method> injectable;
+
+        ProviderMethod(Method member, Key<?> key, boolean singleton, Class<? extends Annotation> scope) {
+            this.member = member;
+            this.key = key;
+            this.singleton = singleton;
+            this.scope = scope;
+        }
+
+        Injectable<Method> injectable() {
+            Injectable<Method> analyzed = injectable;
+            if (analyzed == null) {
+                injectable = analyzed = new Injectable<>(
+                        member,
+                        key,
+                        parameterKeys(member.getParameterTypes(), member.getGenericParameterTypes(), member.getParameterAnnotations()),
+                        providerParameters(member.getParameterTypes()),
+                        singleton,
+                        scope
+                );
+            }
+            return analyzed;
+        }
+    }
+
+    private static Key<?>[] parameterKeys(Class<?>[] parameterClasses, Type[] parameterTypes, Annotation[][] annotations) {
+        Key<?>[] keys = new Key<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            Class<?> providerType = indirect(parameterClasses[i]) ?
+                    (Class<?>) ((ParameterizedType) parameterTypes[i]).getActualTypeArguments()[0] :
+                    null;
+            keys[i] = Key.of(providerType != null ? providerType : parameterClasses[i], qualifier(annotations[i]));
+        }
+        return keys;
+    }
+
+    private static boolean[] providerParameters(Class<?>[] parameterClasses) {
+        boolean[] providers = new boolean[parameterClasses.length];
+        for (int i = 0; i < parameterClasses.length; ++i) {
+            providers[i] = indirect(parameterClasses[i]);
+        }
+        return providers;
+    }
+
+    private static Key<?>[] fieldKeys(Field[] fields) {
+        Key<?>[] keys = new Key<?>[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            Field f = fields[i];
+            Class<?> providerType = indirect(f.getType()) ?
+                    (Class<?>) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0] :
+                    null;
+            keys[i] = Key.of(providerType != null ? providerType : f.getType(), qualifier(f.getAnnotations()));
+        }
+        return keys;
+    }
+
+    private static boolean[] fieldProviders(Field[] fields) {
+        boolean[] providers = new boolean[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            providers[i] = indirect(fields[i].getType());
+        }
+        return providers;
+    }
+
+    /**
+     * @return whether a dependency of the type is injected indirectly, as a Provider or a Lazy of its type argument
+     */
+    private static boolean indirect(Class<?> type) {
+        return Provider.class.equals(type) || Lazy.class.equals(type);
+    }
+
+    private static boolean[] lazyFields(Field[] fields) {
+        Class<?>[] types = new Class<?>[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            types[i] = fields[i].getType();
+        }
+        return lazy(types);
+    }
+
+    private static boolean[] lazy(Class<?>[] types) {
+        boolean[] lazy = null;
+        for (int i = 0; i < types.length; ++i) {
+            if (Lazy.class.equals(types[i])) {
+                if (lazy == null) {
+                    lazy = new boolean[types.length];
+                }
+                lazy[i] = true;
+            }
+        }
+        return lazy;
+    }
+
+    private static Field[] fields(Class<?> type) {
+        Class<?> current = type;
+        List<Field> fields = new ArrayList<>();
+        while (!current.equals(Object.class)) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Inject.class)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            current = current.getSuperclass();
+        }
+        return fields.toArray(new Field[fields.size()]);
+    }
+
+    private static Constructor<?> constructor(Class<?> type) {
+        Constructor<?> inject = null;
+        Constructor<?> noarg = null;
+        for (Constructor<?> c : type.getDeclaredConstructors()) {
+            if (c.isAnnotationPresent(Inject.class)) {
+                if (inject == null) {
+                    inject = c;
+                } else {
+                    throw new FeatherException(String.format("%s has multiple @Inject constructors", type));
+                }
+            } else if (c.getParameterTypes().length == 0) {
+                noarg = c;
+            }
+        }
+        Constructor<?> constructor = inject != null ? inject : noarg;
+        if (constructor != null) {
+            constructor.setAccessible(true);
+            return constructor;
+        } else {
+            throw new FeatherException(String.format("%s doesn't have an @Inject or no-arg constructor, or a module provider", type.getName()));
+        }
+    }
+
+    private static Set<Method> providers(Class<?> type) {
+        Class<?> current = type;
+        Set<Method> providers = new HashSet<>();
+        Set<List<Object>> signatures = new HashSet<>();
+        while (!current.equals(Object.class)) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Provides.class)) {
+                    boolean overridden = !signatures.add(signature(method));
+                    if (type.equals(current) || !overridden) {
+                        method.setAccessible(true);
+                        providers.add(method);
+                    }
+                }
+            }
+            current = current.getSuperclass();
+        }
+        return providers;
+    }
+
+    /**
+     * @return name and parameter types of the method, equal for methods overriding each other
+     */
+    private static List<Object> signature(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        List<Object> signature = new ArrayList<>(parameterTypes.length + 1);
+        signature.add(method.getName());
+        signature.addAll(Arrays.asList(parameterTypes));
+        return signature;
+    }
+}
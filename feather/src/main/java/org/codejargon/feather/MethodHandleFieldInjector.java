@@ -0,0 +1,65 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Injects fields through MethodHandle setters of the generic (Object, Object)void type, linked once per class.
+ */
+class MethodHandleFieldInjector implements FieldInjector<Object> {
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field[] fields;
+    private final MethodHandle[] setters;
+    private final Key<?>[] keys;
+    private final boolean[] providers;
+
+    private MethodHandleFieldInjector(Field[] fields, MethodHandle[] setters, Key<?>[] keys, boolean[] providers) {
+        this.fields = fields;
+        this.setters = setters;
+        this.keys = keys;
+        this.providers = providers;
+    }
+
+    /**
+     * @return MethodHandle based injector, reflection based if a field has no setter (eg final fields)
+     */
+    static FieldInjector<Object> of(Field[] fields, Key<?>[] keys, boolean[] providers) {
+        MethodHandle[] setters = new MethodHandle[fields.length];
+        try {
+            for (int i = 0; i < fields.length; ++i) {
+                setters[i] = MethodHandles.lookup().unreflectSetter(fields[i]).asType(SETTER);
+            }
+        } catch (IllegalAccessException e) {
+            return new FieldPlan.ReflectionFieldInjector(fields, keys, providers);
+        }
+        return new MethodHandleFieldInjector(fields, setters, keys, providers);
+    }
+
+    @Override
+    public Key<?>[] dependencies() {
+        return keys;
+    }
+
+    @Override
+    public boolean[] providers() {
+        return providers;
+    }
+
+    @Override
+    public void inject(Object target, Provider<?>[] values) {
+        for (int i = 0; i < setters.length; ++i) {
+            Object value = values[i].get();
+            try {
+                setters[i].invokeExact(target, value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new FeatherException(String.format("Can't inject field %s in %s", fields[i].getName(), target.getClass().getName()));
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker linked once to a MethodHandle of the generic (Object...)Object type. Arities up to 4 are specialized
+ * so no argument array is allocated per invocation.
+ */
+abstract class MethodHandleInvoker extends Invoker {
+    final MethodHandle handle;
+
+    private MethodHandleInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    static Invoker of(Constructor<?> constructor) {
+        try {
+            return of(MethodHandles.lookup().unreflectConstructor(constructor));
+        } catch (IllegalAccessException e) {
+            return new ConstructorInvoker(constructor);
+        }
+    }
+
+    static Invoker of(Object module, Method method) {
+        try {
+            return of(MethodHandles.lookup().unreflect(method).bindTo(module));
+        } catch (IllegalAccessException e) {
+            return new MethodInvoker(module, method);
+        }
+    }
+
+    private static Invoker of(MethodHandle handle) {
+        int arity = handle.type().parameterCount();
+        switch (arity) {
+            case 0:
+                return new Arity0(handle.asType(MethodType.genericMethodType(0)));
+            case 1:
+                return new Arity1(handle.asType(MethodType.genericMethodType(1)));
+            case 2:
+                return new Arity2(handle.asType(MethodType.genericMethodType(2)));
+            case 3:
+                return new Arity3(handle.asType(MethodType.genericMethodType(3)));
+            case 4:
+                return new Arity4(handle.asType(MethodType.genericMethodType(4)));
+            default:
+                return new Spread(handle.asSpreader(Object[].class, arity).asType(MethodType.methodType(Object.class, Object[].class)));
+        }
+    }
+
+    private static class Arity0 extends MethodHandleInvoker {
+        Arity0(MethodHandle handle) {
+            super(handle);
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return (Object) handle.invokeExact();
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return (Object) handle.invokeExact();
+        }
+    }
+
+    private static class Arity1 extends MethodHandleInvoker {
+        Arity1(MethodHandle handle) {
+            super(handle);
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return (Object) handle.invokeExact(arguments[0].get());
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return (Object) handle.invokeExact(frame[slots[0]]);
+        }
+    }
+
+    private static class Arity2 extends MethodHandleInvoker {
+        Arity2(MethodHandle handle) {
+            super(handle);
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return (Object) handle.invokeExact(arguments[0].get(), arguments[1].get());
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return (Object) handle.invokeExact(frame[slots[0]], frame[slots[1]]);
+        }
+    }
+
+    private static class Arity3 extends MethodHandleInvoker {
+        Arity3(MethodHandle handle) {
+            super(handle);
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return (Object) handle.invokeExact(arguments[0].get(), arguments[1].get(), arguments[2].get());
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return (Object) handle.invokeExact(frame[slots[0]], frame[slots[1]], frame[slots[2]]);
+        }
+    }
+
+    private static class Arity4 extends MethodHandleInvoker {
+        Arity4(MethodHandle handle) {
+            super(handle);
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return (Object) handle.invokeExact(arguments[0].get(), arguments[1].get(), arguments[2].get(), arguments[3].get());
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return (Object) handle.invokeExact(frame[slots[0]], frame[slots[1]], frame[slots[2]], frame[slots[3]]);
+        }
+    }
+
+    private static class Spread extends MethodHandleInvoker {
+        Spread(MethodHandle handle) {
+            super(handle);
+        }
+
+        @Override
+        Object invoke(Provider<?>[] arguments) throws Throwable {
+            return (Object) handle.invokeExact(arguments(arguments));
+        }
+
+        @Override
+        Object invoke(Object[] frame, int[] slots) throws Throwable {
+            return (Object) handle.invokeExact(arguments(frame, slots));
+        }
+    }
+}
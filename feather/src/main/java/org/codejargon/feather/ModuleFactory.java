@@ -0,0 +1,11 @@
+package org.codejargon.feather;
+
+/**
+ * Factories of a module's @Provides methods, generated by feather-compiler.
+ */
+public interface ModuleFactory<M> {
+    /**
+     * @return a factory for each @Provides method of the module instance, overridden methods excluded
+     */
+    Factory<?>[] factories(M module);
+}
@@ -0,0 +1,244 @@
+package org.codejargon.feather;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Support for GraalVM native images. reflectConfig() walks the graph of a module set the way Feather does at run time
+ * and emits the reflect-config.json registering exactly the members Feather touches: the scanned constructors, provider
+ * methods and fields, the chosen ones for invocation, and the classes generated by feather-compiler. Eg as a build step:
+ * <pre>
+ * java -cp ... org.codejargon.feather.NativeImage META-INF/native-image/app/reflect-config.json com.app.AppModule -- com.app.Main
+ * </pre>
+ * prelink() links a graph without instantiating it, eg in a class initialized at image build time.
+ */
+public final class NativeImage {
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    private NativeImage() {
+    }
+
+    /**
+     * @param roots classes instantiated through Feather and targets of injectFields()
+     * @return reflect-config.json of the modules and everything the roots depend on
+     */
+    public static String reflectConfig(Iterable<?> modules, Class<?>... roots) {
+        NativeImage config = new NativeImage();
+        Feather feather = Feather.with(modules);
+        for (Object module : modules) {
+            config.module(module.getClass());
+        }
+        for (Class<?> root : roots) {
+            config.root(feather, root);
+        }
+        feather.validate();
+        for (Binding binding : feather.ownBindings()) {
+            config.binding(binding);
+        }
+        return config.json();
+    }
+
+    /**
+     * Links the modules of Feather and the roots (see validate()) without instantiating anything, so Feather can be
+     * stored in an image initialized at build time. Singletons are created at run time, on first use.
+     *
+     * @throws FeatherException if a singleton is already initialized, its instance would be stored in the image
+     */
+    public static void prelink(Feather feather, Class<?>... roots) {
+        for (Class<?> root : roots) {
+            feather.linked(Key.of(root), null);
+        }
+        feather.validate();
+        for (Binding binding : feather.ownBindings()) {
+            if (binding.singleton && ((SingletonProvider<?>) binding.provider).initialized() != null) {
+                throw new FeatherException(String.format("Singleton %s is initialized, it can't be stored in the image", binding.key));
+            }
+        }
+    }
+
+    /**
+     * Writes reflect-config.json of modules (classes with a no-arg constructor) and roots:
+     * output module... [-- root...]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: NativeImage output module... [-- root...]");
+            System.exit(1);
+        }
+        List<Object> modules = new ArrayList<>();
+        List<Class<?>> roots = new ArrayList<>();
+        boolean root = false;
+        for (int i = 1; i < args.length; ++i) {
+            if (args[i].equals("--")) {
+                root = true;
+            } else if (root) {
+                roots.add(Class.forName(args[i]));
+            } else {
+                Constructor<?> constructor = Class.forName(args[i]).getDeclaredConstructor();
+                constructor.setAccessible(true);
+                modules.add(constructor.newInstance());
+            }
+        }
+        File output = new File(args[0]);
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), "UTF-8")) {
+            writer.write(reflectConfig(modules, roots.toArray(new Class<?>[roots.size()])));
+        }
+    }
+
+    private void module(Class<?> module) {
+        if (Metadata.moduleFactory(module) != null) {
+            generated(module, Generated.MODULE);
+        } else {
+            for (Class<?> current = module; !current.equals(Object.class); current = current.getSuperclass()) {
+                entry(current).queryAllDeclaredMethods = true;
+            }
+        }
+    }
+
+    /**
+     * Registers the root as a constructed class if it can be constructed, and the fields it has injected
+     */
+    private void root(Feather feather, Class<?> root) {
+        FieldInjector<Object> fieldInjector = Metadata.fieldInjector(root);
+        Key<?>[] fieldKeys = fieldInjector.dependencies();
+        if (fieldKeys.length == 0 || constructible(root)) {
+            feather.linked(Key.of(root), null);
+        }
+        if (fieldKeys.length > 0) {
+            if (Generated.fieldInjector(root) != null) {
+                generated(root, Generated.INJECTOR);
+            } else {
+                for (Class<?> current = root; !current.equals(Object.class); current = current.getSuperclass()) {
+                    entry(current).allDeclaredFields = true;
+                    for (Field field : current.getDeclaredFields()) {
+                        if (field.isAnnotationPresent(javax.inject.Inject.class)) {
+                            entry(current).fields.add(field.getName());
+                        }
+                    }
+                }
+            }
+            for (Key<?> key : fieldKeys) {
+                feather.linked(key, null);
+            }
+        }
+    }
+
+    /**
+     * @return whether the type is a concrete class with an @Inject or no-arg constructor
+     */
+    private static boolean constructible(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(javax.inject.Inject.class) || constructor.getParameterTypes().length == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void binding(Binding binding) {
+        if (binding.source instanceof Constructor) {
+            Constructor<?> constructor = (Constructor<?>) binding.source;
+            Entry entry = entry(constructor.getDeclaringClass());
+            entry.queryAllDeclaredConstructors = true;
+            entry.methods.add(method("<init>", constructor.getParameterTypes()));
+        } else if (binding.source instanceof Method) {
+            Method method = (Method) binding.source;
+            entry(method.getDeclaringClass()).methods.add(method(method.getName(), method.getParameterTypes()));
+        } else if (binding.source instanceof Factory && Metadata.factory(binding.key.type) == binding.source) {
+            generated(binding.key.type, Generated.FACTORY);
+        }
+    }
+
+    private void generated(Class<?> type, String suffix) {
+        entry(Generated.name(type, suffix)).methods.add(method("<init>", new Class<?>[0]));
+    }
+
+    private Entry entry(Class<?> type) {
+        return entry(type.getName());
+    }
+
+    private Entry entry(String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(name, entry);
+        }
+        return entry;
+    }
+
+    private String json() {
+        StringBuilder json = new StringBuilder("[\n");
+        String separator = "";
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            json.append(separator).append("  {\n    \"name\": \"").append(entry.getKey()).append('"');
+            entry.getValue().json(json);
+            json.append("\n  }");
+            separator = ",\n";
+        }
+        return json.append("\n]\n").toString();
+    }
+
+    private static String method(String name, Class<?>[] parameterTypes) {
+        StringBuilder method = new StringBuilder("{\"name\": \"").append(name).append("\", \"parameterTypes\": [");
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            method.append(i == 0 ? "" : ", ").append('"').append(typeName(parameterTypes[i])).append('"');
+        }
+        return method.append("]}").toString();
+    }
+
+    private static String typeName(Class<?> type) {
+        return type.isArray() ? typeName(type.getComponentType()) + "[]" : type.getName();
+    }
+
+    private static class Entry {
+        boolean queryAllDeclaredConstructors;
+        boolean queryAllDeclaredMethods;
+        boolean allDeclaredFields;
+        final Set<String> methods = new TreeSet<>();
+        final Set<String> fields = new TreeSet<>();
+
+        void json(StringBuilder json) {
+            if (queryAllDeclaredConstructors) {
+                json.append(",\n    \"queryAllDeclaredConstructors\": true");
+            }
+            if (queryAllDeclaredMethods) {
+                json.append(",\n    \"queryAllDeclaredMethods\": true");
+            }
+            if (allDeclaredFields) {
+                json.append(",\n    \"allDeclaredFields\": true");
+            }
+            if (!methods.isEmpty()) {
+                json.append(",\n    \"methods\": [");
+                String separator = "\n      ";
+                for (String method : methods) {
+                    json.append(separator).append(method);
+                    separator = ",\n      ";
+                }
+                json.append("\n    ]");
+            }
+            if (!fields.isEmpty()) {
+                json.append(",\n    \"fields\": [");
+                String separator = "\n      ";
+                for (String field : fields) {
+                    json.append(separator).append("{\"name\": \"").append(field).append("\", \"allowWrite\": true}");
+                    separator = ",\n      ";
+                }
+                json.append("\n    ]");
+            }
+        }
+    }
+}
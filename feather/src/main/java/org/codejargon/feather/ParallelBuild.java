@@ -0,0 +1,231 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds an instance with its dependencies instantiated concurrently: the graph below the root is expanded up front
+ * (a node per instance, one per singleton), then each node is submitted to the executor as soon as the nodes it
+ * depends on are done. Singletons are created through their SingletonProvider, so concurrent builds share them.
+ * Injected Providers aren't expanded. Bindings of other scopes are asked for their instance on the calling thread while
+ * expanding, as their scope may be bound to it (eg an entered ContextScope). Stops scheduling on the first error.
+ */
+class ParallelBuild {
+    private final Feather feather;
+    private final Executor executor;
+    private final ProvisionListener listener;
+    private final Map<Binding, Node> singletons = new HashMap<>();
+    private final Result result = new Result();
+    private Node root;
+
+    ParallelBuild(Feather feather, Executor executor, ProvisionListener listener) {
+        this.feather = feather;
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    Future<Object> start(Key<?> key) {
+        List<Node> ready = new ArrayList<>();
+        try {
+            root = node(feather.linked(key, null), ready);
+        } catch (RuntimeException e) {
+            result.complete(null, e);
+            return result;
+        }
+        if (root.done) {
+            result.complete(root.value, null);
+        }
+        for (Node node : ready) {
+            submit(node);
+        }
+        return result;
+    }
+
+    private Node node(Binding binding, List<Node> ready) {
+        Node node = binding.singleton ? singletons.get(binding) : null;
+        if (node != null) {
+            return node;
+        }
+        node = new Node(binding);
+        if (binding.singleton) {
+            singletons.put(binding, node);
+            Object initialized = singleton(binding).initialized();
+            if (initialized != null) {
+                node.value = initialized;
+                node.done = true;
+                return node;
+            }
+        }
+        if (!binding.singleton && feather.scoped(binding)) {
+            node.value = binding.provider.get();
+            node.done = true;
+            return node;
+        }
+        node.arguments = new Provider<?>[binding.dependencies.length];
+        for (int i = 0; i < node.arguments.length; ++i) {
+            if (binding.providers[i]) {
+                node.arguments[i] = binding.arguments[i];
+            } else {
+                Node dependency = node(feather.linked(binding.dependencies[i], null), ready);
+                node.arguments[i] = dependency;
+                if (!dependency.done) {
+                    dependency.dependents.add(node);
+                    node.pending.incrementAndGet();
+                }
+            }
+        }
+        if (node.pending.get() == 0) {
+            ready.add(node);
+        }
+        return node;
+    }
+
+    private void submit(final Node node) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    try {
+                        node.value = create(node);
+                    } catch (Throwable e) {
+                        result.complete(null, e);
+                        return;
+                    }
+                    completed(node);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.complete(null, e);
+        }
+    }
+
+    private void completed(Node node) {
+        if (node == root) {
+            result.complete(node.value, null);
+            return;
+        }
+        for (Node dependent : node.dependents) {
+            if (dependent.pending.decrementAndGet() == 0) {
+                submit(dependent);
+            }
+        }
+    }
+
+    private Object create(final Node node) {
+        final Binding binding = node.binding;
+        if (binding.singleton) {
+            return singleton(binding).get(new Provider<Object>() {
+                @Override
+                public Object get() {
+                    return binding.create(node.arguments);
+                }
+            });
+        } else if (listener != null) {
+            long start = System.nanoTime();
+            Object instance = binding.create(node.arguments);
+            listener.provisioned(binding.key, System.nanoTime() - start);
+            return instance;
+        } else {
+            return binding.create(node.arguments);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SingletonProvider<Object> singleton(Binding binding) {
+        return (SingletonProvider<Object>) binding.provider;
+    }
+
+    /**
+     * An instance to build, a provider of its value once done
+     */
+    private static class Node implements Provider<Object> {
+        final Binding binding;
+        final List<Node> dependents = new ArrayList<>(1);
+        final AtomicInteger pending = new AtomicInteger();
+        Provider<?>[] arguments;
+        volatile Object value;
+        boolean done;
+
+        Node(Binding binding) {
+            this.binding = binding;
+        }
+
+        @Override
+        public Object get() {
+            return value;
+        }
+    }
+
+    /**
+     * Future of the root, completed once by the first value or error
+     */
+    private static class Result implements Future<Object> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile Object value;
+        private volatile Throwable exception;
+        private volatile boolean cancelled;
+
+        boolean complete(Object value, Throwable exception) {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            this.value = value;
+            this.exception = exception;
+            done.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelled = true;
+            done.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return completed.get();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            done.await();
+            return value();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return value();
+        }
+
+        private Object value() throws ExecutionException {
+            if (cancelled) {
+                throw new CancellationException();
+            } else if (exception != null) {
+                throw new ExecutionException(exception);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.io.Closeable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Scope of instances that aren't thread-safe but too expensive to create for each use (parsers, codecs, buffers).
+ * Each binding of the scope gets a pool of at most max instances in use at the same time (a child injector binding a
+ * key of the parent differently gets its own). A get() borrows an idle instance, or creates one, and the instance has
+ * to be given back through release() - or borrowed through a Lease closed by try-with-resources:
+ * <pre>
+ * PoolScope pools = new PoolScope(64);
+ * Feather feather = Feather.builder().modules(...).scope(Pooled.class, pools).build();
+ * PoolScope.Pool&lt;Parser&gt; parsers = PoolScope.pool(feather.provider(Parser.class));
+ * try (PoolScope.Lease&lt;Parser&gt; parser = parsers.lease()) {
+ *     parser.get().parse(...);
+ * }
+ * </pre>
+ * Idle and borrowed instances are kept in slots, a thread starts looking for one (and for a free slot) at a slot of
+ * its own, so threads mostly touch different slots: borrowing and releasing are a few CAS operations unless the pool is
+ * exhausted, a get() then waits for a release, failing after the timeout instead of waiting forever. Pooled keys can't be
+ * injected directly, nothing would release the instances: inject a Provider and borrow from its pool.
+ */
+public class PoolScope implements Scoping {
+    private static final long DEFAULT_TIMEOUT_SECONDS = 5;
+
+    private final int max;
+    private final long timeoutNanos;
+    private final ConcurrentMap<Key<?>, Pool<?>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param max instances of a key in use at the same time, a get() waits at most 5 seconds for a release
+     */
+    public PoolScope(int max) {
+        this(max, DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param max     instances of a key in use at the same time
+     * @param timeout how long a get() waits for a release while max instances are in use
+     */
+    public PoolScope(int max, long timeout, TimeUnit unit) {
+        if (max < 1) {
+            throw new IllegalArgumentException("max < 1");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout < 0");
+        }
+        this.max = max;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * @return a new pool of the binding of key
+     */
+    @Override
+    public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+        Pool<T> pool = new Pool<>(key, unscoped, max, timeoutNanos);
+        pools.putIfAbsent(key, pool);
+        return pool;
+    }
+
+    /**
+     * @return the pool of the first binding of key created (the injector's, unless a child bound key first), null if
+     * there's no pooled binding of key yet. pool(feather.provider(key)) returns the pool of a given injector.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Pool<T> pool(Key<T> key) {
+        return (Pool<T>) pools.get(key);
+    }
+
+    /**
+     * @param provider provider of a pooled binding, eg feather.provider(Parser.class)
+     * @return the pool behind the provider
+     * @throws FeatherException if the binding isn't pooled
+     */
+    public static <T> Pool<T> pool(Provider<T> provider) {
+        if (!(provider instanceof Pool)) {
+            throw new FeatherException(String.format("%s isn't pooled", provider));
+        }
+        return (Pool<T>) provider;
+    }
+
+    /**
+     * Pool of the instances of a binding. get() borrows an instance, release() gives it back.
+     */
+    public static class Pool<T> implements Provider<T> {
+        private final Key<T> key;
+        private final Provider<T> unscoped;
+        private final long timeoutNanos;
+        private final Semaphore permits;
+        private final AtomicReferenceArray<T> idle;
+        private final AtomicReferenceArray<T> borrowed;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong waits = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+
+        private Pool(Key<T> key, Provider<T> unscoped, int max, long timeoutNanos) {
+            this.key = key;
+            this.unscoped = unscoped;
+            this.timeoutNanos = timeoutNanos;
+            this.permits = new Semaphore(max);
+            this.idle = new AtomicReferenceArray<>(max);
+            this.borrowed = new AtomicReferenceArray<>(max);
+        }
+
+        /**
+         * @return an idle instance, or a new one if there's none. Waits while max instances are in use. A null created by
+         * the binding isn't borrowed, it takes no place in the pool.
+         * @throws FeatherException if no instance is released within the timeout, or the thread is interrupted
+         */
+        @Override
+        public T get() {
+            if (!permits.tryAcquire()) {
+                acquire();
+            }
+            int length = idle.length();
+            int start = stripe(length);
+            T instance = null;
+            for (int i = 0; i < length && instance == null; ++i) {
+                int slot = (start + i) % length;
+                if (idle.get(slot) != null) {
+                    instance = idle.getAndSet(slot, null);
+                }
+            }
+            if (instance != null) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                try {
+                    instance = unscoped.get();
+                } catch (RuntimeException | Error e) {
+                    permits.release();
+                    throw e;
+                }
+                if (instance == null) {
+                    permits.release();
+                    return null;
+                }
+            }
+            for (int i = 0; !borrowed.compareAndSet((start + i) % length, null, instance); ++i) {
+                // a slot is free, at most max instances are borrowed
+            }
+            return instance;
+        }
+
+        /**
+         * Gives back an instance borrowed by get(), it must not be used afterwards
+         *
+         * @throws FeatherException if the instance isn't borrowed from this pool, eg released already
+         */
+        public void release(T instance) {
+            int length = borrowed.length();
+            int start = stripe(length);
+            int slot = -1;
+            for (int i = 0; i < length && slot < 0 && instance != null; ++i) {
+                if (borrowed.get((start + i) % length) == instance && borrowed.compareAndSet((start + i) % length, instance, null)) {
+                    slot = (start + i) % length;
+                }
+            }
+            if (slot < 0) {
+                throw new FeatherException(String.format("%s isn't borrowed from the pool of %s", instance, key));
+            }
+            for (int i = 0; i < length; ++i) {
+                if (idle.compareAndSet((start + i) % length, null, instance)) {
+                    break;
+                }
+            }
+            permits.release();
+        }
+
+        /**
+         * @return an instance borrowed until the lease is closed
+         */
+        public Lease<T> lease() {
+            return new Lease<>(this, get());
+        }
+
+        public Key<T> key() {
+            return key;
+        }
+
+        /**
+         * @return number of get()s served by an idle instance
+         */
+        public long hits() {
+            return hits.get();
+        }
+
+        /**
+         * @return number of get()s creating a new instance
+         */
+        public long misses() {
+            return misses.get();
+        }
+
+        /**
+         * @return number of get()s that waited for a release, the pool being exhausted
+         */
+        public long waits() {
+            return waits.get();
+        }
+
+        /**
+         * @return total time get()s waited for a release
+         */
+        public long waitNanos() {
+            return waitNanos.get();
+        }
+
+        /**
+         * @return number of instances that can be borrowed without waiting
+         */
+        public int available() {
+            return permits.availablePermits();
+        }
+
+        @Override
+        public String toString() {
+            return "Pool of " + key;
+        }
+
+        private void acquire() {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FeatherException(String.format("Interrupted waiting for the pool of %s", key), e);
+            }
+            waits.incrementAndGet();
+            waitNanos.addAndGet(System.nanoTime() - start);
+            if (!acquired) {
+                throw new FeatherException(String.format(
+                        "Pool of %s exhausted, nothing released within %d ms",
+                        key,
+                        TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+                ));
+            }
+        }
+
+        private static int stripe(int length) {
+            return (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 33) % length;
+        }
+    }
+
+    /**
+     * An instance borrowed from a pool, released by close()
+     */
+    public static class Lease<T> implements Closeable {
+        private final Pool<T> pool;
+        private T instance;
+
+        private Lease(Pool<T> pool, T instance) {
+            this.pool = pool;
+            this.instance = instance;
+        }
+
+        public T get() {
+            if (instance == null) {
+                throw new FeatherException(String.format("Lease of %s is closed", pool.key));
+            }
+            return instance;
+        }
+
+        /**
+         * Releases the instance to the pool, once
+         */
+        @Override
+        public void close() {
+            if (instance != null) {
+                T released = instance;
+                instance = null;
+                pool.release(released);
+            }
+        }
+    }
+}
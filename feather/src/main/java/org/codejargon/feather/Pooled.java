@@ -0,0 +1,14 @@
+package org.codejargon.feather;
+
+import javax.inject.Scope;
+import java.lang.annotation.*;
+
+/**
+ * Instances borrowed from a bounded pool and given back once used, see PoolScope
+ */
+@Scope
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Pooled {
+}
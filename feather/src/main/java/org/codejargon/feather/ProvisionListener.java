@@ -0,0 +1,74 @@
+package org.codejargon.feather;
+
+/**
+ * Notified of the instances Feather creates and of the one-off costs of scanning modules and resolving bindings, see
+ * Feather.Builder.listener(). Times are in nanoseconds and include creating the non-singleton dependencies of the
+ * instance. Methods are called on the thread creating the instance,
+ * they should be fast and thread-safe. Without a listener Feather doesn't measure anything.
+ * Types instantiated through a compiled graph report only the instances of the root.
+ */
+public abstract class ProvisionListener {
+    /**
+     * A non-singleton instance of key was created
+     */
+    public void provisioned(Key<?> key, long nanos) {
+    }
+
+    /**
+     * A non-singleton instance of key was created, selfNanos excluding the time of creating its dependencies. Calls
+     * provisioned(key, nanos) unless overridden.
+     */
+    public void provisioned(Key<?> key, long nanos, long selfNanos) {
+        provisioned(key, nanos);
+    }
+
+    /**
+     * The singleton of key was created
+     */
+    public void singletonInitialized(Key<?> key, long nanos) {
+    }
+
+    /**
+     * The singleton of key was created, selfNanos excluding the time of creating its dependencies. Calls
+     * singletonInitialized(key, nanos) unless overridden.
+     */
+    public void singletonInitialized(Key<?> key, long nanos, long selfNanos) {
+        singletonInitialized(key, nanos);
+    }
+
+    /**
+     * A thread waited for another one initializing the singleton of key
+     */
+    public void singletonWaited(Key<?> key, long nanos) {
+    }
+
+    /**
+     * The provider methods (or generated factories) of a module were scanned, when Feather was created or on first
+     * use for lazy modules
+     *
+     * @param bindings number of bindings of the module
+     */
+    public void moduleScanned(Class<?> module, int bindings, long nanos) {
+    }
+
+    /**
+     * The binding of key was resolved for the first time: created (constructor lookup, parameter analysis) and linked
+     * to its dependencies, the time includes resolving those
+     */
+    public void bindingLinked(Key<?> key, long nanos) {
+    }
+
+    /**
+     * The field injection plan of the type was created, on its first injectFields()
+     */
+    public void fieldsPlanned(Class<?> type, long nanos) {
+    }
+
+    /**
+     * @return whether provisioned() is to be called. Listeners interested in one-off costs only return false, so
+     * instances of non-singleton bindings aren't timed.
+     */
+    public boolean listensToInstances() {
+        return true;
+    }
+}
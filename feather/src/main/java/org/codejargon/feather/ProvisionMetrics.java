@@ -0,0 +1,177 @@
+package org.codejargon.feather;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Listener collecting per key instance counts, construction times (total and self) and their histograms and singleton
+ * initialization / wait times. Can be registered as a JMX MXBean, eg:
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName("org.codejargon.feather:type=ProvisionMetrics"))
+ */
+public class ProvisionMetrics extends ProvisionListener implements ProvisionMetricsMXBean {
+    static final int BUCKETS = 64;
+
+    private final ConcurrentMap<Key<?>, Stats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void provisioned(Key<?> key, long nanos) {
+        stats(key).provisioned(nanos, nanos);
+    }
+
+    @Override
+    public void provisioned(Key<?> key, long nanos, long selfNanos) {
+        stats(key).provisioned(nanos, selfNanos);
+    }
+
+    @Override
+    public void singletonInitialized(Key<?> key, long nanos) {
+        singletonInitialized(key, nanos, nanos);
+    }
+
+    @Override
+    public void singletonInitialized(Key<?> key, long nanos, long selfNanos) {
+        Stats keyStats = stats(key);
+        keyStats.provisioned(nanos, selfNanos);
+        keyStats.initializationNanos.set(nanos);
+    }
+
+    @Override
+    public void singletonWaited(Key<?> key, long nanos) {
+        stats(key).waitNanos.addAndGet(nanos);
+    }
+
+    /**
+     * @return number of instances of key created, 0 if none
+     */
+    public long count(Key<?> key) {
+        Stats keyStats = stats.get(key);
+        return keyStats != null ? keyStats.count.get() : 0;
+    }
+
+    /**
+     * @return total time spent creating the instances of key, including their dependencies
+     */
+    public long nanos(Key<?> key) {
+        Stats keyStats = stats.get(key);
+        return keyStats != null ? keyStats.nanos.get() : 0;
+    }
+
+    /**
+     * @return total time spent creating the instances of key, excluding the instances created for them
+     */
+    public long selfNanos(Key<?> key) {
+        Stats keyStats = stats.get(key);
+        return keyStats != null ? keyStats.selfNanos.get() : 0;
+    }
+
+    /**
+     * @return histogram of construction times of key, see getConstructionHistograms()
+     */
+    public long[] histogram(Key<?> key) {
+        Stats keyStats = stats.get(key);
+        return keyStats != null ? keyStats.histogram() : new long[BUCKETS];
+    }
+
+    @Override
+    public Map<String, Long> getInstanceCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<Key<?>, Stats> entry : stats.entrySet()) {
+            counts.put(entry.getKey().toString(), entry.getValue().count.get());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getConstructionNanos() {
+        Map<String, Long> nanos = new TreeMap<>();
+        for (Map.Entry<Key<?>, Stats> entry : stats.entrySet()) {
+            nanos.put(entry.getKey().toString(), entry.getValue().nanos.get());
+        }
+        return nanos;
+    }
+
+    @Override
+    public Map<String, Long> getSelfConstructionNanos() {
+        Map<String, Long> nanos = new TreeMap<>();
+        for (Map.Entry<Key<?>, Stats> entry : stats.entrySet()) {
+            nanos.put(entry.getKey().toString(), entry.getValue().selfNanos.get());
+        }
+        return nanos;
+    }
+
+    @Override
+    public Map<String, long[]> getConstructionHistograms() {
+        Map<String, long[]> histograms = new TreeMap<>();
+        for (Map.Entry<Key<?>, Stats> entry : stats.entrySet()) {
+            histograms.put(entry.getKey().toString(), entry.getValue().histogram());
+        }
+        return histograms;
+    }
+
+    @Override
+    public Map<String, Long> getSingletonInitializationNanos() {
+        Map<String, Long> nanos = new TreeMap<>();
+        for (Map.Entry<Key<?>, Stats> entry : stats.entrySet()) {
+            long initialization = entry.getValue().initializationNanos.get();
+            if (initialization >= 0) {
+                nanos.put(entry.getKey().toString(), initialization);
+            }
+        }
+        return nanos;
+    }
+
+    @Override
+    public Map<String, Long> getSingletonWaitNanos() {
+        Map<String, Long> nanos = new TreeMap<>();
+        for (Map.Entry<Key<?>, Stats> entry : stats.entrySet()) {
+            long wait = entry.getValue().waitNanos.get();
+            if (wait > 0) {
+                nanos.put(entry.getKey().toString(), wait);
+            }
+        }
+        return nanos;
+    }
+
+    @Override
+    public void reset() {
+        stats.clear();
+    }
+
+    private Stats stats(Key<?> key) {
+        Stats keyStats = stats.get(key);
+        if (keyStats == null) {
+            Stats created = new Stats();
+            keyStats = stats.putIfAbsent(key, created);
+            keyStats = keyStats != null ? keyStats : created;
+        }
+        return keyStats;
+    }
+
+    private static class Stats {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong nanos = new AtomicLong();
+        final AtomicLong selfNanos = new AtomicLong();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final AtomicLong initializationNanos = new AtomicLong(-1);
+        final AtomicLong waitNanos = new AtomicLong();
+
+        void provisioned(long elapsed, long self) {
+            count.incrementAndGet();
+            nanos.addAndGet(elapsed);
+            selfNanos.addAndGet(self);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, elapsed))));
+        }
+
+        long[] histogram() {
+            long[] histogram = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; ++i) {
+                histogram[i] = buckets.get(i);
+            }
+            return histogram;
+        }
+    }
+}
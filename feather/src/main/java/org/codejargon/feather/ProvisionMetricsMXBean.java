@@ -0,0 +1,40 @@
+package org.codejargon.feather;
+
+import java.util.Map;
+
+/**
+ * JMX view of ProvisionMetrics, keys are in the format of Key.toString()
+ */
+public interface ProvisionMetricsMXBean {
+    /**
+     * @return number of instances created per key, singletons included
+     */
+    Map<String, Long> getInstanceCounts();
+
+    /**
+     * @return total time spent creating the instances of each key
+     */
+    Map<String, Long> getConstructionNanos();
+
+    /**
+     * @return total time spent creating the instances of each key, excluding the instances created for them
+     */
+    Map<String, Long> getSelfConstructionNanos();
+
+    /**
+     * @return histogram of construction times per key, element i counts the instances created in [2^(i-1), 2^i) ns
+     */
+    Map<String, long[]> getConstructionHistograms();
+
+    /**
+     * @return time the initialization of each singleton took
+     */
+    Map<String, Long> getSingletonInitializationNanos();
+
+    /**
+     * @return total time threads waited for the initialization of each singleton
+     */
+    Map<String, Long> getSingletonWaitNanos();
+
+    void reset();
+}
@@ -0,0 +1,17 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+
+/**
+ * A scope of bindings annotated with a javax.inject.Scope annotation, registered with Feather.Builder.scope().
+ * ContextScope is the implementation for request / session style scopes.
+ */
+public interface Scoping {
+    /**
+     * Called once per binding when the binding is created
+     *
+     * @param unscoped provides a new instance of the binding on each get()
+     * @return provider of the instances of the binding in the scope
+     */
+    <T> Provider<T> scope(Key<T> key, Provider<T> unscoped);
+}
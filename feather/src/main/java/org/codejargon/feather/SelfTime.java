@@ -0,0 +1,24 @@
+package org.codejargon.feather;
+
+/**
+ * Time spent creating the instances nested in the one being created on the current thread, so the self time of an
+ * instance is told apart from the time of creating its dependencies. Only used when a listener is set.
+ */
+final class SelfTime {
+    private static final ThreadLocal<long[]> nested = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    private SelfTime() {
+    }
+
+    /**
+     * @return nested[0] is the time spent creating nested instances so far, at the current level
+     */
+    static long[] nested() {
+        return nested.get();
+    }
+}
@@ -0,0 +1,14 @@
+package org.codejargon.feather;
+
+import javax.inject.Scope;
+import java.lang.annotation.*;
+
+/**
+ * One instance per session, see ContextScope
+ */
+@Scope
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface SessionScoped {
+}
@@ -0,0 +1,103 @@
+package org.codejargon.feather;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Initializes singletons concurrently in dependency order: a singleton is submitted as soon as the singletons it
+ * depends on (directly or through non-singleton bindings) are initialized, so the total time is about the critical path
+ * of the graph. Stops scheduling and fails on the first error.
+ */
+class SingletonInitializer {
+    private final Map<Binding, Set<Binding>> dependencies;
+    private final Map<Binding, List<Binding>> dependents = new HashMap<>();
+    private final Map<Binding, AtomicInteger> pending = new HashMap<>();
+    private final AtomicInteger remaining;
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * @param dependencies singleton bindings mapped to the singleton bindings they depend on
+     */
+    SingletonInitializer(Map<Binding, Set<Binding>> dependencies) {
+        this.dependencies = dependencies;
+        this.remaining = new AtomicInteger(dependencies.size());
+        for (Map.Entry<Binding, Set<Binding>> singleton : dependencies.entrySet()) {
+            pending.put(singleton.getKey(), new AtomicInteger(singleton.getValue().size()));
+            for (Binding dependency : singleton.getValue()) {
+                if (!dependents.containsKey(dependency)) {
+                    dependents.put(dependency, new ArrayList<Binding>());
+                }
+                dependents.get(dependency).add(singleton.getKey());
+            }
+        }
+    }
+
+    void initialize(Executor executor) {
+        if (dependencies.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Binding, Set<Binding>> singleton : dependencies.entrySet()) {
+            if (singleton.getValue().isEmpty()) {
+                submit(executor, singleton.getKey());
+            }
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FeatherException("Interrupted while initializing singletons", e);
+        }
+        Throwable failure = error.get();
+        if (failure instanceof FeatherException) {
+            throw (FeatherException) failure;
+        } else if (failure != null) {
+            throw new FeatherException("Can't initialize singletons", failure);
+        }
+    }
+
+    private void submit(final Executor executor, final Binding singleton) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (error.get() != null) {
+                        return;
+                    }
+                    try {
+                        singleton.provider.get();
+                    } catch (Throwable e) {
+                        fail(e);
+                        return;
+                    }
+                    completed(executor, singleton);
+                }
+            });
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void completed(Executor executor, Binding singleton) {
+        if (remaining.decrementAndGet() == 0) {
+            done.countDown();
+            return;
+        }
+        List<Binding> waiting = dependents.get(singleton);
+        if (waiting != null) {
+            for (Binding dependent : waiting) {
+                if (pending.get(dependent).decrementAndGet() == 0) {
+                    submit(executor, dependent);
+                }
+            }
+        }
+    }
+
+    private void fail(Throwable e) {
+        error.compareAndSet(null, e);
+        done.countDown();
+    }
+}
@@ -0,0 +1,81 @@
+package org.codejargon.feather;
+
+import javax.inject.Provider;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the instance of a singleton binding. Once initialized a get() is a single volatile read. Initialization is
+ * guarded by a lock of the binding, so unrelated singletons are initialized concurrently. A ReentrantLock is used
+ * instead of a monitor, so virtual threads waiting for a slow singleton don't pin their carrier. The listener, if any,
+ * is only involved until the singleton is initialized.
+ */
+class SingletonProvider<T> implements Provider<T> {
+    private final Key<?> key;
+    private final Provider<T> provider;
+    private final ProvisionListener listener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile T instance;
+
+    SingletonProvider(Key<?> key, Provider<T> provider, ProvisionListener listener) {
+        this.key = key;
+        this.provider = provider;
+        this.listener = listener;
+    }
+
+    @Override
+    public T get() {
+        T current = instance;
+        return current != null ? current : initialize(provider);
+    }
+
+    /**
+     * @return the instance, created by creator if it isn't initialized yet
+     */
+    T get(Provider<T> creator) {
+        T current = instance;
+        return current != null ? current : initialize(creator);
+    }
+
+    /**
+     * @return the instance, null if it isn't initialized yet
+     */
+    T initialized() {
+        return instance;
+    }
+
+    private T initialize(Provider<T> creator) {
+        if (!lock.tryLock()) {
+            long waitStart = System.nanoTime();
+            lock.lock();
+            if (listener != null) {
+                listener.singletonWaited(key, System.nanoTime() - waitStart);
+            }
+        }
+        try {
+            T current = instance;
+            if (current == null) {
+                if (listener != null) {
+                    long[] nested = SelfTime.nested();
+                    long outer = nested[0];
+                    nested[0] = 0;
+                    long start = System.nanoTime();
+                    long nanos;
+                    long inner;
+                    try {
+                        instance = current = creator.get();
+                    } finally {
+                        nanos = System.nanoTime() - start;
+                        inner = nested[0];
+                        nested[0] = outer + nanos;
+                    }
+                    listener.singletonInitialized(key, nanos, nanos - inner);
+                } else {
+                    instance = current = creator.get();
+                }
+            }
+            return current;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
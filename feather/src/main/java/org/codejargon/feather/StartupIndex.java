@@ -0,0 +1,493 @@
+package org.codejargon.feather;
+
+import javax.inject.Singleton;
+import java.io.*;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Opt-in index of the reflection metadata Feather discovers, persisted between runs of short-lived JVMs (eg CLI or
+ * serverless invocations). For each injected class it records the chosen constructor, for each module the provider
+ * methods, for each class with @Inject fields the fields, with their keys, and which classes have no class generated by
+ * feather-compiler. With the index of a previous run loaded, members are looked up by signature instead of scanning
+ * the declared members of every class and their annotations, and missing generated classes aren't looked up again.
+ * <pre>
+ * File index = new File("feather.index");
+ * StartupIndex.load(index);
+ * Feather feather = Feather.with(new AppModule());
+ * ...
+ * StartupIndex.save(index);
+ * </pre>
+ * The file is read in one go and not kept open (so save() can replace it on any platform), an entry is decoded when
+ * its class is first used. Entries are validated against the size
+ * and modification time of the class files of the class and its superclasses (of the jars for classes loaded from
+ * jars). A class whose class file changed, or isn't loaded from a local file (eg on Android), is scanned as without
+ * an index.
+ */
+public final class StartupIndex {
+    private static final int MAGIC = 0x46544858;
+    private static final int VERSION = 2;
+    private static final long UNKNOWN = -1;
+    private static final char CONSTRUCTOR = 'C';
+    private static final char PROVIDERS = 'P';
+    private static final char FIELDS = 'F';
+    private static final char NOT_GENERATED = 'N';
+    private static final int MAX_STRING = 0xFFFF;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Map<String, Class<?>> primitives = new HashMap<>();
+
+    static {
+        for (Class<?> primitive : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class}) {
+            primitives.put(primitive.getName(), primitive);
+        }
+    }
+
+    private static volatile boolean enabled;
+    private static volatile Map<String, ByteBuffer> loaded = Collections.emptyMap();
+    private static final ConcurrentMap<String, byte[]> recorded = new ConcurrentHashMap<>();
+
+    private StartupIndex() {
+    }
+
+    /**
+     * Loads the index written by a previous run and starts recording the metadata discovered from now on. A missing,
+     * or unreadable index is ignored. Classes already used by Feather before loading aren't indexed.
+     */
+    public static synchronized void load(File file) {
+        Map<String, ByteBuffer> entries = new HashMap<>();
+        if (file.isFile()) {
+            try {
+                entries = entries(read(file));
+            } catch (IOException | RuntimeException e) {
+                entries.clear();
+            }
+        }
+        loaded = entries;
+        recorded.clear();
+        enabled = true;
+    }
+
+    /**
+     * Writes the entries of the loaded index and the ones recorded since, replacing the file. Writes nothing if
+     * nothing was recorded since the index was loaded.
+     */
+    public static synchronized void save(File file) throws IOException {
+        if (recorded.isEmpty() && file.isFile()) {
+            return;
+        }
+        Map<String, Object> entries = new TreeMap<>();
+        entries.putAll(loaded);
+        entries.putAll(recorded);
+        File temporary = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                byte[] body = bytes(entry.getValue());
+                writeString(out, entry.getKey());
+                out.writeInt(body.length);
+                out.write(body);
+            }
+        }
+        if (!temporary.renameTo(file) && !(file.delete() && temporary.renameTo(file))) {
+            throw new IOException(String.format("Can't replace %s", file));
+        }
+    }
+
+    /**
+     * @return the indexed constructor of the type, null if it isn't indexed or changed since
+     */
+    static Metadata.Injectable<Constructor<?>> constructor(Class<?> type) {
+        ByteBuffer in = entry(CONSTRUCTOR, type);
+        if (in == null) {
+            return null;
+        }
+        try {
+            ClassLoader loader = type.getClassLoader();
+            boolean singleton = in.get() != 0;
+            Class<? extends Annotation> scope = annotationType(readString(in), loader);
+            Class<?>[] parameterTypes = classes(in, loader);
+            Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return new Metadata.Injectable<Constructor<?>>(constructor, Key.of(type), keys(in, loader), flags(in), singleton, scope);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the indexed provider methods of the module, null if it isn't indexed or changed since
+     */
+    static List<Metadata.Injectable<Method>> providers(Class<?> module) {
+        ByteBuffer in = entry(PROVIDERS, module);
+        if (in == null) {
+            return null;
+        }
+        try {
+            ClassLoader loader = module.getClassLoader();
+            List<Metadata.Injectable<Method>> providers = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; --i) {
+                Class<?> declaring = load(readString(in), loader);
+                String name = readString(in);
+                Method method = declaring.getDeclaredMethod(name, classes(in, loader));
+                method.setAccessible(true);
+                Key<?> key = key(in, loader);
+                boolean singleton = in.get() != 0 || method.getReturnType().isAnnotationPresent(Singleton.class);
+                Class<? extends Annotation> scope = annotationType(readString(in), loader);
+                providers.add(new Metadata.Injectable<>(
+                        method,
+                        key,
+                        keys(in, loader),
+                        flags(in),
+                        singleton,
+                        scope != null ? scope : Metadata.scope(method.getReturnType())
+                ));
+            }
+            return Collections.unmodifiableList(providers);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the indexed reflection field injector of the type with its Lazy fields, null if it isn't indexed or
+     * changed since
+     */
+    static Metadata.InjectedFields fieldInjector(Class<?> type) {
+        ByteBuffer in = entry(FIELDS, type);
+        if (in == null) {
+            return null;
+        }
+        try {
+            ClassLoader loader = type.getClassLoader();
+            Field[] fields = new Field[in.getInt()];
+            for (int i = 0; i < fields.length; ++i) {
+                fields[i] = load(readString(in), loader).getDeclaredField(readString(in));
+                fields[i].setAccessible(true);
+            }
+            FieldInjector<Object> injector = FieldPlan.injector(fields, keys(in, loader), flags(in));
+            boolean[] lazy = flags(in);
+            return new Metadata.InjectedFields(injector, lazy.length > 0 ? lazy : null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether the index records that the type has no generated class with the suffix, see Generated
+     */
+    static boolean notGenerated(Class<?> type, String suffix) {
+        return entry(NOT_GENERATED + suffix, type) != null;
+    }
+
+    static void recordNotGenerated(Class<?> type, String suffix) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (writeStamps(out, type)) {
+                recorded.put(NOT_GENERATED + suffix + type.getName(), bytes.toByteArray());
+            }
+        } catch (IOException e) {
+            // not indexed
+        }
+    }
+
+    static void recordConstructor(Class<?> type, Metadata.Injectable<Constructor<?>> constructor) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (!writeStamps(out, type)) {
+                return;
+            }
+            out.writeBoolean(constructor.singleton);
+            writeString(out, constructor.scope != null ? constructor.scope.getName() : "");
+            writeClasses(out, constructor.member.getParameterTypes());
+            writeKeys(out, constructor.dependencies);
+            writeFlags(out, constructor.providers);
+            recorded.put(id(CONSTRUCTOR, type), bytes.toByteArray());
+        } catch (IOException e) {
+            // not indexed
+        }
+    }
+
+    static void recordProviders(Class<?> module, List<Metadata.Injectable<Method>> providers) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (!writeStamps(out, module)) {
+                return;
+            }
+            out.writeInt(providers.size());
+            for (Metadata.Injectable<Method> provider : providers) {
+                Method method = provider.member;
+                writeString(out, method.getDeclaringClass().getName());
+                writeString(out, method.getName());
+                writeClasses(out, method.getParameterTypes());
+                writeKey(out, provider.key);
+                out.writeBoolean(method.isAnnotationPresent(Singleton.class));
+                writeString(out, provider.scope != null && provider.scope != Metadata.scope(method.getReturnType()) ? provider.scope.getName() : "");
+                writeKeys(out, provider.dependencies);
+                writeFlags(out, provider.providers);
+            }
+            recorded.put(id(PROVIDERS, module), bytes.toByteArray());
+        } catch (IOException e) {
+            // not indexed
+        }
+    }
+
+    static void recordFields(Class<?> type, Field[] fields, Key<?>[] keys, boolean[] providers, boolean[] lazy) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (!writeStamps(out, type)) {
+                return;
+            }
+            out.writeInt(fields.length);
+            for (Field field : fields) {
+                writeString(out, field.getDeclaringClass().getName());
+                writeString(out, field.getName());
+            }
+            writeKeys(out, keys);
+            writeFlags(out, providers);
+            writeFlags(out, lazy != null ? lazy : new boolean[0]);
+            recorded.put(id(FIELDS, type), bytes.toByteArray());
+        } catch (IOException e) {
+            // not indexed
+        }
+    }
+
+    /**
+     * @return the body of the entry positioned after the class file stamps, null if there's no valid entry
+     */
+    private static ByteBuffer entry(char kind, Class<?> type) {
+        return entry(String.valueOf(kind), type);
+    }
+
+    private static ByteBuffer entry(String kind, Class<?> type) {
+        if (!enabled) {
+            return null;
+        }
+        ByteBuffer entry = loaded.get(kind + type.getName());
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer in = entry.duplicate();
+        try {
+            for (int i = in.getInt(); i > 0; --i) {
+                String name = readString(in);
+                long stamp = in.getLong();
+                if (!name.equals(type.getName())) {
+                    type = type.getSuperclass();
+                    if (type == null || !name.equals(type.getName())) {
+                        return null;
+                    }
+                }
+                if (stamp != stamp(type)) {
+                    return null;
+                }
+            }
+            return in;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, ByteBuffer> entries(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Not a Feather startup index of this version");
+        }
+        Map<String, ByteBuffer> entries = new HashMap<>();
+        for (int i = in.getInt(); i > 0; --i) {
+            String id = readString(in);
+            int length = in.getInt();
+            ByteBuffer body = in.slice();
+            body.limit(length);
+            entries.put(id, body);
+            in.position(in.position() + length);
+        }
+        return entries;
+    }
+
+    private static ByteBuffer read(File file) throws IOException {
+        try (RandomAccessFile random = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[(int) random.length()];
+            random.readFully(bytes);
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+
+    /**
+     * Writes the class file stamps of the type and its superclasses, Object excluded
+     *
+     * @return false if a class file can't be located
+     */
+    private static boolean writeStamps(DataOutputStream out, Class<?> type) throws IOException {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && !current.equals(Object.class); current = current.getSuperclass()) {
+            hierarchy.add(current);
+        }
+        out.writeInt(hierarchy.size());
+        for (Class<?> current : hierarchy) {
+            long stamp = stamp(current);
+            if (stamp == UNKNOWN) {
+                return false;
+            }
+            writeString(out, current.getName());
+            out.writeLong(stamp);
+        }
+        return true;
+    }
+
+    /**
+     * @return stamp of the class file from its size and modification time, or of the jar the class is loaded from,
+     * UNKNOWN if the class isn't loaded from a local file
+     */
+    private static long stamp(Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null || !"file".equals(source.getLocation().getProtocol())) {
+            return UNKNOWN;
+        }
+        try {
+            File location = new File(source.getLocation().toURI());
+            File file = location.isDirectory() ? new File(location, type.getName().replace('.', File.separatorChar) + ".class") : location;
+            return file.isFile() ? file.lastModified() * 31 + file.length() : UNKNOWN;
+        } catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static String id(char kind, Class<?> type) {
+        return kind + type.getName();
+    }
+
+    private static void writeKeys(DataOutputStream out, Key<?>[] keys) throws IOException {
+        out.writeInt(keys.length);
+        for (Key<?> key : keys) {
+            writeKey(out, key);
+        }
+    }
+
+    private static void writeKey(DataOutputStream out, Key<?> key) throws IOException {
+        writeString(out, key.type.getName());
+        if (key.qualifier == null) {
+            out.writeByte(0);
+        } else if (key.name != null) {
+            out.writeByte(1);
+            writeString(out, key.name);
+        } else {
+            out.writeByte(2);
+            writeString(out, key.qualifier.getName());
+        }
+    }
+
+    private static Key<?>[] keys(ByteBuffer in, ClassLoader loader) throws ClassNotFoundException {
+        Key<?>[] keys = new Key<?>[in.getInt()];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = key(in, loader);
+        }
+        return keys;
+    }
+
+    private static Key<?> key(ByteBuffer in, ClassLoader loader) throws ClassNotFoundException {
+        Class<?> type = load(readString(in), loader);
+        switch (in.get()) {
+            case 0:
+                return Key.of(type);
+            case 1:
+                return Key.of(type, readString(in));
+            default:
+                // a qualifier without a name, Named included: Key.of(type, Named.class) equals a key of a null name
+                return Key.of(type, annotationType(readString(in), loader));
+        }
+    }
+
+    private static void writeFlags(DataOutputStream out, boolean[] flags) throws IOException {
+        out.writeInt(flags.length);
+        for (boolean flag : flags) {
+            out.writeBoolean(flag);
+        }
+    }
+
+    private static boolean[] flags(ByteBuffer in) {
+        boolean[] flags = new boolean[in.getInt()];
+        for (int i = 0; i < flags.length; ++i) {
+            flags[i] = in.get() != 0;
+        }
+        return flags;
+    }
+
+    private static void writeClasses(DataOutputStream out, Class<?>[] classes) throws IOException {
+        out.writeInt(classes.length);
+        for (Class<?> type : classes) {
+            writeString(out, type.getName());
+        }
+    }
+
+    private static Class<?>[] classes(ByteBuffer in, ClassLoader loader) throws ClassNotFoundException {
+        Class<?>[] classes = new Class<?>[in.getInt()];
+        for (int i = 0; i < classes.length; ++i) {
+            classes[i] = load(readString(in), loader);
+        }
+        return classes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> annotationType(String name, ClassLoader loader) throws ClassNotFoundException {
+        return name.isEmpty() ? null : (Class<? extends Annotation>) load(name, loader);
+    }
+
+    private static Class<?> load(String name, ClassLoader loader) throws ClassNotFoundException {
+        Class<?> primitive = primitives.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, loader);
+    }
+
+    /**
+     * @throws IOException if the string is longer than MAX_STRING bytes, the entry isn't indexed then
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(UTF_8);
+        if (bytes.length > MAX_STRING) {
+            throw new IOException(String.format("%d bytes long string can't be indexed", bytes.length));
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static byte[] bytes(Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        ByteBuffer buffer = ((ByteBuffer) body).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
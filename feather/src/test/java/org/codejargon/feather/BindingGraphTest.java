@@ -0,0 +1,118 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BindingGraphTest {
+    @Test
+    public void resolvedBindings() {
+        Feather feather = Feather.with(new Module());
+        feather.instance(A.class);
+        BindingGraph graph = BindingGraph.of(feather);
+        assertNull(graph.node(Key.of(Unused.class)));
+
+        BindingGraph.Node a = graph.node(Key.of(A.class));
+        assertEquals("constructor of " + A.class.getName(), a.source());
+        assertFalse(a.singleton());
+        assertEquals(3, a.dependencies().size());
+        assertEquals(Key.of(String.class, "greeting"), a.dependencies().get(0).key());
+        assertFalse(a.dependencies().get(0).provider());
+        assertTrue(a.dependencies().get(1).provider());
+        assertTrue(a.dependencies().get(2).lazy());
+        assertFalse(a.dependencies().get(2).provider());
+
+        BindingGraph.Node greeting = graph.node(Key.of(String.class, "greeting"));
+        assertEquals("@Provides " + Module.class.getName() + ".greeting()", greeting.source());
+        assertTrue(graph.node(Key.of(S.class)).singleton());
+        assertEquals(0, a.count());
+    }
+
+    @Test
+    public void orderedByKey() {
+        Feather feather = Feather.with(new Module());
+        feather.instance(A.class);
+        List<String> keys = new ArrayList<>();
+        for (BindingGraph.Node node : BindingGraph.of(feather).nodes()) {
+            keys.add(node.key().toString());
+        }
+        List<String> sorted = new ArrayList<>(keys);
+        Collections.sort(sorted);
+        assertEquals(sorted, keys);
+        assertTrue(keys.containsAll(Arrays.asList(A.class.getName(), B.class.getName(), S.class.getName())));
+    }
+
+    @Test
+    public void costs() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().modules(new Module()).listener(metrics).build();
+        feather.instance(A.class);
+        feather.instance(A.class);
+        BindingGraph graph = BindingGraph.of(feather, metrics);
+        BindingGraph.Node a = graph.node(Key.of(A.class));
+        assertEquals(2, a.count());
+        assertTrue(a.nanos() > 0);
+        assertTrue(a.selfNanos() <= a.nanos());
+        assertEquals(0, graph.node(Key.of(S.class)).count());
+        assertTrue(graph.toJson().contains("\"selfNanos\": "));
+        assertFalse(BindingGraph.of(feather).toJson().contains("\"selfNanos\": "));
+    }
+
+    @Test
+    public void dot() {
+        Feather feather = Feather.with(new Module());
+        feather.instance(A.class);
+        String dot = BindingGraph.of(feather).toDot();
+        assertTrue(dot.startsWith("digraph feather {"));
+        String a = "\"" + A.class.getName() + "\"";
+        assertTrue(dot.contains("  " + a + " -> \"java.lang.String@\\\"greeting\\\"\";\n"));
+        assertTrue(dot.contains("  " + a + " -> \"" + B.class.getName() + "\" [style=dashed];\n"));
+        assertTrue(dot.contains("  \"" + S.class.getName() + "\" [label=\"" + S.class.getName() + "\\nconstructor of " + S.class.getName() + "\", style=bold];\n"));
+    }
+
+    @Test
+    public void json() {
+        Feather feather = Feather.with(new Module());
+        feather.instance(A.class);
+        String json = BindingGraph.of(feather).toJson();
+        assertTrue(json.contains("{\"key\": \"java.lang.String@\\\"greeting\\\"\", \"source\": \"@Provides " + Module.class.getName() + ".greeting()\", \"singleton\": false, \"scope\": null, \"dependencies\": []}"));
+        assertTrue(json.contains("{\"key\": \"" + B.class.getName() + "\", \"provider\": true, \"lazy\": false}"));
+        assertTrue(json.contains("{\"key\": \"" + S.class.getName() + "\", \"provider\": false, \"lazy\": true}"));
+    }
+
+    public static class A {
+        @Inject
+        public A(@Named("greeting") String greeting, Provider<B> b, Lazy<S> s) {
+        }
+    }
+
+    public static class B {
+
+    }
+
+    @Singleton
+    public static class S {
+
+    }
+
+    public static class Unused {
+
+    }
+
+    public static class Module {
+        @Provides
+        @Named("greeting")
+        String greeting() {
+            return "hi";
+        }
+    }
+}
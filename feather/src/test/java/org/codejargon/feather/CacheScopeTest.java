@@ -0,0 +1,185 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CacheScopeTest {
+    @Test
+    public void cachedUntilEvicted() {
+        CacheScope cache = CacheScope.builder().recordStats().build();
+        Feather feather = Feather.builder().scope(Cached.class, cache).build();
+        Table table = feather.instance(Table.class);
+        assertSame(table, feather.instance(Table.class));
+        assertSame(table, feather.instance(Report.class).table);
+        assertEquals(1, cache.misses());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEvictedBeyondMaxEntries() {
+        CacheScope cache = CacheScope.builder().maxEntries(2).recordStats().build();
+        Feather feather = Feather.builder().modules(new Module()).scope(Cached.class, cache).build();
+        StringBuilder a = feather.instance(Key.of(StringBuilder.class, "a"));
+        StringBuilder b = feather.instance(Key.of(StringBuilder.class, "b"));
+        feather.instance(Key.of(StringBuilder.class, "c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        int cached = (a == feather.instance(Key.of(StringBuilder.class, "a")) ? 1 : 0) +
+                (b == feather.instance(Key.of(StringBuilder.class, "b")) ? 1 : 0);
+        assertTrue(cached <= 1);
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    public void usedEntrySurvivesSweep() {
+        CacheScope cache = CacheScope.builder().maxEntries(2).recordStats().build();
+        Feather feather = Feather.builder().modules(new Module()).scope(Cached.class, cache).build();
+        StringBuilder a = feather.instance(Key.of(StringBuilder.class, "a"));
+        feather.instance(Key.of(StringBuilder.class, "b"));
+        feather.instance(Key.of(StringBuilder.class, "c"));
+        feather.instance(Key.of(StringBuilder.class, "a"));
+        StringBuilder a2 = feather.instance(Key.of(StringBuilder.class, "a"));
+        feather.instance(Key.of(StringBuilder.class, "d"));
+        assertSame(a2, feather.instance(Key.of(StringBuilder.class, "a")));
+        assertNotNull(a);
+    }
+
+    @Test
+    public void expiresAfterWrite() throws Exception {
+        CacheScope cache = CacheScope.builder().expireAfterWrite(1, TimeUnit.MILLISECONDS).recordStats().build();
+        Feather feather = Feather.builder().scope(Cached.class, cache).build();
+        Table table = feather.instance(Table.class);
+        Thread.sleep(5);
+        assertNotSame(table, feather.instance(Table.class));
+        assertEquals(1, cache.evictions());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void expiresAfterAccess() throws Exception {
+        CacheScope cache = CacheScope.builder().expireAfterAccess(1, TimeUnit.HOURS).build();
+        Feather feather = Feather.builder().scope(Cached.class, cache).build();
+        assertSame(feather.instance(Table.class), feather.instance(Table.class));
+        CacheScope expiring = CacheScope.builder().expireAfterAccess(1, TimeUnit.MILLISECONDS).build();
+        feather = Feather.builder().scope(Cached.class, expiring).build();
+        Table table = feather.instance(Table.class);
+        Thread.sleep(5);
+        assertNotSame(table, feather.instance(Table.class));
+    }
+
+    @Test
+    public void softValues() {
+        CacheScope cache = CacheScope.builder().softValues().build();
+        Feather feather = Feather.builder().scope(Cached.class, cache).build();
+        assertSame(feather.instance(Table.class), feather.instance(Table.class));
+    }
+
+    @Test
+    public void statsNotRecordedByDefault() {
+        CacheScope cache = CacheScope.builder().build();
+        Feather feather = Feather.builder().scope(Cached.class, cache).build();
+        assertSame(feather.instance(Table.class), feather.instance(Table.class));
+        assertEquals(0, cache.hits());
+        assertEquals(0, cache.misses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void entryRegisteredOncePerBinding() {
+        CacheScope cache = CacheScope.builder().maxEntries(1).build();
+        Feather parent = Feather.builder().scope(Cached.class, cache).build();
+        Table table = parent.instance(Table.class);
+        for (int i = 0; i < 100; ++i) {
+            assertSame(table, parent.child().instance(Table.class));
+        }
+        assertSame(parent.provider(Table.class), parent.child().provider(Table.class));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void childOverridingDependencyGetsOwnEntry() {
+        CacheScope cache = CacheScope.builder().maxEntries(10).build();
+        Feather parent = Feather.builder().modules(new NameModule("parent")).scope(Cached.class, cache).build();
+        Feather child = parent.child(new NameModule("child"));
+        Labeled childLabeled = child.instance(Labeled.class);
+        Labeled parentLabeled = parent.instance(Labeled.class);
+        assertEquals("child", childLabeled.name);
+        assertEquals("parent", parentLabeled.name);
+        assertSame(childLabeled, child.instance(Labeled.class));
+        assertSame(parentLabeled, parent.instance(Labeled.class));
+        assertEquals(2, cache.size());
+    }
+
+    @Cached
+    public static class Table {
+    }
+
+    @Cached
+    public static class Labeled {
+        final String name;
+
+        @Inject
+        public Labeled(@Named("name") String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Report {
+        final Table table;
+
+        @Inject
+        public Report(Table table) {
+            this.table = table;
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Cached
+        @Named("a")
+        StringBuilder a() {
+            return new StringBuilder("a");
+        }
+
+        @Provides
+        @Cached
+        @Named("b")
+        StringBuilder b() {
+            return new StringBuilder("b");
+        }
+
+        @Provides
+        @Cached
+        @Named("c")
+        StringBuilder c() {
+            return new StringBuilder("c");
+        }
+
+        @Provides
+        @Cached
+        @Named("d")
+        StringBuilder d() {
+            return new StringBuilder("d");
+        }
+    }
+
+    public static class NameModule {
+        private final String name;
+
+        NameModule(String name) {
+            this.name = name;
+        }
+
+        @Provides
+        @Named("name")
+        String name() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class ChildTest {
+    @Test
+    public void childBindingsAdded() {
+        Feather parent = Feather.with(new AppModule());
+        Feather child = parent.child(new RequestModule("alice"));
+        assertEquals("alice", child.instance(Handler.class).user);
+    }
+
+    @Test
+    public void singletonsShared() {
+        Feather parent = Feather.with(new AppModule());
+        Feather first = parent.child(new RequestModule("alice"));
+        Feather second = parent.child(new RequestModule("bob"));
+        Handler alice = first.instance(Handler.class);
+        Handler bob = second.instance(Handler.class);
+        assertEquals("bob", bob.user);
+        assertSame(alice.service, bob.service);
+        assertSame(parent.instance(Service.class), alice.service);
+    }
+
+    @Test
+    public void dependentsOfChildBindingsOwnedByChild() {
+        Feather parent = Feather.with(new AppModule());
+        Feather first = parent.child(new RequestModule("alice"));
+        Feather second = parent.child(new RequestModule("bob"));
+        assertEquals("alice", first.instance(Session.class).handler.user);
+        assertEquals("bob", second.instance(Session.class).handler.user);
+        assertSame(first.instance(Session.class), first.instance(Session.class));
+    }
+
+    @Test
+    public void ownershipProbeLeavesParentUntouched() {
+        Feather parent = Feather.with(new AppModule());
+        Feather child = parent.child(new RequestModule("alice"));
+        assertEquals("alice", child.instance(Session.class).handler.user);
+        assertNull(BindingGraph.of(parent).node(Key.of(Session.class)));
+        assertNull(BindingGraph.of(parent).node(Key.of(Handler.class)));
+        parent.validate();
+        parent.initSingletons(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        parent.freeze();
+        assertEquals("alice", parent.child(new RequestModule("alice")).instance(Session.class).handler.user);
+    }
+
+    @Test
+    public void overridesParent() {
+        Feather parent = Feather.with(new AppModule());
+        Feather child = parent.child(new OverrideModule());
+        assertEquals("child", child.instance(Key.of(String.class, "config")));
+        assertEquals("child", child.instance(Configured.class).config);
+        assertEquals("parent", parent.instance(Configured.class).config);
+    }
+
+    @Test
+    public void parentProviderMethodsRebound() {
+        Feather parent = Feather.with(new AppModule());
+        Feather child = parent.child(new OverrideModule());
+        assertEquals("child!", child.instance(Key.of(String.class, "greeting")));
+        assertEquals("parent!", parent.instance(Key.of(String.class, "greeting")));
+    }
+
+    @Test
+    public void injectedProvidersResolvedInChild() {
+        Feather child = Feather.with(new AppModule()).child(new RequestModule("alice"));
+        assertEquals("alice", child.instance(LazyHandler.class).handler.get().user);
+    }
+
+    @Test
+    public void unrelatedBindingsDelegated() {
+        Feather parent = Feather.with(new AppModule());
+        Feather child = parent.child(new RequestModule("alice"));
+        assertSame(parent.provider(Service.class), child.provider(Service.class));
+        assertSame(parent.provider(Plain.class), child.provider(Plain.class));
+    }
+
+    @Test
+    public void childInjectsItself() {
+        Feather parent = Feather.with();
+        Feather child = parent.child();
+        assertSame(child, child.instance(Feather.class));
+    }
+
+    @Test
+    public void nestedChildren() {
+        Feather parent = Feather.with(new AppModule());
+        Feather child = parent.child(new RequestModule("alice"));
+        Feather grandchild = child.child(new OverrideModule());
+        Handler handler = grandchild.instance(Handler.class);
+        assertEquals("alice", handler.user);
+        assertEquals("child", grandchild.instance(Configured.class).config);
+        assertSame(parent.instance(Service.class), handler.service);
+    }
+
+    public static class AppModule {
+        @Provides
+        @Named("config")
+        String config() {
+            return "parent";
+        }
+
+        @Provides
+        @Named("greeting")
+        String greeting(@Named("config") String config) {
+            return config + "!";
+        }
+    }
+
+    public static class RequestModule {
+        private final String user;
+
+        RequestModule(String user) {
+            this.user = user;
+        }
+
+        @Provides
+        @Named("user")
+        String user() {
+            return user;
+        }
+    }
+
+    public static class OverrideModule {
+        @Provides
+        @Named("config")
+        String config() {
+            return "child";
+        }
+    }
+
+    @Singleton
+    public static class Service {
+
+    }
+
+    public static class Plain {
+
+    }
+
+    public static class Handler {
+        final String user;
+        final Service service;
+
+        @Inject
+        public Handler(@Named("user") String user, Service service) {
+            this.user = user;
+            this.service = service;
+        }
+    }
+
+    public static class LazyHandler {
+        final Provider<Handler> handler;
+
+        @Inject
+        public LazyHandler(Provider<Handler> handler) {
+            this.handler = handler;
+        }
+    }
+
+    @Singleton
+    public static class Session {
+        final Handler handler;
+
+        @Inject
+        public Session(Handler handler) {
+            this.handler = handler;
+        }
+    }
+
+    public static class Configured {
+        final String config;
+
+        @Inject
+        public Configured(@Named("config") String config) {
+            this.config = config;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import static org.junit.Assert.*;
+
+public class CompileTest {
+    @Test
+    public void compiledGraphInstantiated() {
+        Feather feather = Feather.with(new Module());
+        feather.compile(A.class);
+        A a1 = feather.instance(A.class);
+        A a2 = feather.instance(A.class);
+        assertNotSame(a1, a2);
+        assertNotSame(a1.b1, a1.b2);
+        assertNotSame(a1.b1.c, a2.b1.c);
+        assertSame(a1.b1.singleton, a2.b2.singleton);
+        assertEquals("hi", a1.b1.greeting);
+        assertNotNull(a1.cProvider.get());
+    }
+
+    @Test
+    public void compiledSingletonRemainsSingleton() {
+        Feather feather = Feather.with(new Module());
+        feather.compile(S.class);
+        assertSame(feather.instance(S.class), feather.instance(S.class));
+    }
+
+    @Test
+    public void compiledRootInjected() {
+        Feather feather = Feather.with(new Module());
+        feather.compile(B.class);
+        assertNotNull(feather.instance(A.class).b1.c);
+    }
+
+    @Test(expected = FeatherException.class)
+    public void circularDependencyCaught() {
+        Feather.with().compile(CircularDependencyTest.Circle1.class);
+    }
+
+    public static class A {
+        private final B b1;
+        private final B b2;
+        private final Provider<C> cProvider;
+
+        @Inject
+        public A(B b1, B b2, Provider<C> cProvider) {
+            this.b1 = b1;
+            this.b2 = b2;
+            this.cProvider = cProvider;
+        }
+    }
+
+    public static class B {
+        private final C c;
+        private final S singleton;
+        private final String greeting;
+
+        @Inject
+        public B(C c, S singleton, @Named("greeting") String greeting) {
+            this.c = c;
+            this.singleton = singleton;
+            this.greeting = greeting;
+        }
+    }
+
+    public static class C {
+
+    }
+
+    @Singleton
+    public static class S {
+        @Inject
+        public S(C c) {
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Named("greeting")
+        String greeting() {
+            return "hi";
+        }
+    }
+}
@@ -3,8 +3,12 @@ package org.codejargon.feather;
 import org.junit.Test;
 
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Arrays;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 public class FieldInjectionTest {
     @Test
@@ -15,13 +19,97 @@ public class FieldInjectionTest {
         assertNotNull(target.a);
     }
 
+    @Test
+    public void inheritedQualifiedAndProviderFieldsInjected() {
+        Feather feather = Feather.with(new Module());
+        SubTarget target = new SubTarget();
+        feather.injectFields(target);
+        assertNotNull(((Target) target).a);
+        assertEquals("hello", target.greeting);
+        assertSame(target.singleton.get(), feather.instance(S.class));
+        assertEquals(Integer.valueOf(42), target.number);
+    }
+
+    @Test
+    public void finalFieldInjected() {
+        Feather feather = Feather.with();
+        FinalTarget target = new FinalTarget();
+        feather.injectFields(target);
+        assertNotNull(target.a);
+    }
+
+    @Test
+    public void planReusedAcrossTargets() {
+        Feather feather = Feather.with();
+        Target first = new Target();
+        Target second = new Target();
+        feather.injectFields(first);
+        feather.injectFields(second);
+        assertNotNull(second.a);
+        assertNotSame(first.a, second.a);
+    }
+
+    @Test
+    public void allFieldsInjected() {
+        Feather feather = Feather.with(new Module());
+        Target first = new Target();
+        SubTarget second = new SubTarget();
+        Target third = new Target();
+        feather.injectAllFields(Arrays.asList(first, second, third));
+        assertNotNull(first.a);
+        assertEquals("hello", second.greeting);
+        assertNotNull(third.a);
+    }
+
+    @Test(expected = FeatherException.class)
+    public void missingBinding() {
+        Feather.with().injectFields(new MissingTarget());
+    }
 
     public static class Target {
         @Inject
         private A a;
     }
 
+    public static class SubTarget extends Target {
+        @Inject
+        @Named("greeting")
+        String greeting;
+        @Inject
+        Provider<S> singleton;
+        @Inject
+        Integer number;
+    }
+
+    public static class FinalTarget {
+        @Inject
+        private final A a = null;
+    }
+
+    public static class MissingTarget {
+        @Inject
+        Runnable runnable;
+    }
+
     public static class A {
 
     }
+
+    @Singleton
+    public static class S {
+
+    }
+
+    public static class Module {
+        @Provides
+        @Named("greeting")
+        String greeting() {
+            return "hello";
+        }
+
+        @Provides
+        Integer number() {
+            return 42;
+        }
+    }
 }
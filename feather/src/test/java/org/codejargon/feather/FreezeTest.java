@@ -0,0 +1,114 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FreezeTest {
+    @Test
+    public void bindingsKeptWhenFrozen() {
+        Feather feather = Feather.with(new Module());
+        Single single = feather.instance(Single.class);
+        feather.freeze();
+        assertSame(single, feather.instance(Single.class));
+        assertEquals("name", feather.instance(Key.of(String.class, "name")));
+        assertSame(single, feather.instance(Dependent.class).single);
+        assertSame(feather, feather.instance(Feather.class));
+    }
+
+    @Test
+    public void modulesLinkedWhenFrozen() {
+        Feather feather = Feather.with(new Module());
+        feather.freeze();
+        assertEquals("name", feather.instance(Dependent.class).name);
+    }
+
+    @Test(expected = FeatherException.class)
+    public void missingBindingReportedWhenFrozen() {
+        Feather.with(new BrokenModule()).freeze();
+    }
+
+    @Test
+    public void typesBoundAfterFreezing() {
+        Feather feather = Feather.with(new Module());
+        feather.freeze();
+        Dependent dependent = feather.instance(Dependent.class);
+        assertNotNull(dependent);
+        assertSame(feather.instance(Single.class), dependent.single);
+        feather.freeze();
+        assertSame(feather.instance(Single.class), feather.instance(Dependent.class).single);
+    }
+
+    @Test
+    public void frozenTable() {
+        List<Binding> bindings = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            Key<String> key = Key.of(String.class, "key" + i);
+            bindings.add(new Binding(key, null, new Key<?>[0], new boolean[0], false, null, null));
+        }
+        FrozenBindings frozen = new FrozenBindings(bindings);
+        for (Binding binding : bindings) {
+            assertSame(binding, frozen.get(binding.key));
+        }
+        assertSame(bindings.get(42), frozen.get(Key.of(String.class, "key42")));
+        assertNull(frozen.get(Key.of(String.class, "key1000")));
+        assertNull(frozen.get(Key.of(String.class)));
+        assertEquals(1000, frozen.values().size());
+    }
+
+    @Test
+    public void childOfFrozenParent() {
+        Feather parent = Feather.with(new Module());
+        parent.freeze();
+        Feather child = parent.child(new ChildModule());
+        assertEquals("child", child.instance(Dependent.class).name);
+        assertSame(parent.instance(Single.class), child.instance(Single.class));
+    }
+
+    @Singleton
+    public static class Single {
+    }
+
+    public static class Dependent {
+        private final Single single;
+        private final String name;
+
+        @Inject
+        public Dependent(Single single, @Named("name") String name) {
+            this.single = single;
+            this.name = name;
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Named("name")
+        String name(Single single) {
+            return "name";
+        }
+    }
+
+    public static class ChildModule {
+        @Provides
+        @Named("name")
+        String name() {
+            return "child";
+        }
+    }
+
+    public static class BrokenModule {
+        @Provides
+        String name(Unbound unbound) {
+            return "name";
+        }
+    }
+
+    public interface Unbound {
+    }
+}
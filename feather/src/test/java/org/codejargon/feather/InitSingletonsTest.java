@@ -0,0 +1,102 @@
+package org.codejargon.feather;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class InitSingletonsTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test(timeout = 5000)
+    public void independentSingletonsInitializedConcurrently() {
+        Feather feather = Feather.with(new ConcurrentModule(new CyclicBarrier(2)));
+        feather.initSingletons(executor);
+        assertEquals(2, feather.instance(Key.of(Integer.class, "sum")).intValue());
+    }
+
+    @Test
+    public void rootSingletonsInitialized() {
+        Counted.instances = 0;
+        Feather feather = Feather.with();
+        feather.initSingletons(executor, Root.class);
+        assertEquals(1, Counted.instances);
+        feather.instance(Root.class);
+        assertEquals(1, Counted.instances);
+    }
+
+    @Test(expected = FeatherException.class)
+    public void firstErrorThrown() {
+        Feather.with(new FailingModule()).initSingletons(executor);
+    }
+
+    public static class ConcurrentModule {
+        private final CyclicBarrier barrier;
+
+        ConcurrentModule(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Provides
+        @Singleton
+        @Named("a")
+        Integer a() throws Exception {
+            barrier.await(2, TimeUnit.SECONDS);
+            return 1;
+        }
+
+        @Provides
+        @Singleton
+        @Named("b")
+        Integer b() throws Exception {
+            barrier.await(2, TimeUnit.SECONDS);
+            return 1;
+        }
+
+        @Provides
+        @Singleton
+        @Named("sum")
+        Integer sum(@Named("a") Integer a, @Named("b") Integer b) {
+            return a + b;
+        }
+    }
+
+    public static class Root {
+        @Inject
+        public Root(Counted counted) {
+        }
+    }
+
+    @Singleton
+    public static class Counted {
+        static int instances;
+
+        public Counted() {
+            ++instances;
+        }
+    }
+
+    public static class FailingModule {
+        @Provides
+        @Singleton
+        String failing() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.codejargon.feather;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class InstanceAsyncTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void dependenciesInstantiatedConcurrently() throws Exception {
+        Feather feather = Feather.with(new BlockingModule(new CyclicBarrier(3)));
+        Wide wide = feather.instanceAsync(Wide.class, executor).get(10, TimeUnit.SECONDS);
+        assertEquals("a", wide.a);
+        assertEquals("b", wide.b);
+        assertEquals("c", wide.c);
+    }
+
+    @Test
+    public void singletonsShared() throws Exception {
+        int instances = Shared.instances.get();
+        Feather feather = Feather.with();
+        Future<Shared> first = feather.instanceAsync(Shared.class, executor);
+        Future<Shared> second = feather.instanceAsync(Shared.class, executor);
+        Future<Diamond> diamond = feather.instanceAsync(Diamond.class, executor);
+        Shared shared = first.get(10, TimeUnit.SECONDS);
+        assertSame(shared, second.get(10, TimeUnit.SECONDS));
+        assertSame(shared, diamond.get(10, TimeUnit.SECONDS).left.shared);
+        assertSame(shared, diamond.get(10, TimeUnit.SECONDS).right.shared);
+        assertSame(shared, feather.instance(Shared.class));
+        assertNotSame(diamond.get().left, diamond.get().right);
+        assertEquals(instances + 1, Shared.instances.get());
+    }
+
+    @Test
+    public void providersInjected() throws Exception {
+        Feather feather = Feather.with();
+        WithProvider withProvider = feather.instanceAsync(WithProvider.class, executor).get(10, TimeUnit.SECONDS);
+        assertSame(feather.instance(Shared.class), withProvider.shared.get());
+    }
+
+    @Test
+    public void errorsReportedByFuture() throws Exception {
+        Future<Unbound> future = Feather.with().instanceAsync(Unbound.class, executor);
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof FeatherException);
+        }
+    }
+
+    @Test
+    public void failingProviderReported() throws Exception {
+        Future<String> future = Feather.with(new FailingModule()).instanceAsync(Key.of(String.class, "failing"), executor);
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof FeatherException);
+        }
+    }
+
+    @Test
+    public void contextScopedResolvedOnCallingThread() throws Exception {
+        ContextScope requests = new ContextScope();
+        Feather feather = Feather.builder().scope(RequestScoped.class, requests).build();
+        requests.enter();
+        try {
+            RequestRoot root = feather.instanceAsync(RequestRoot.class, executor).get(10, TimeUnit.SECONDS);
+            assertSame(feather.instance(RequestDependency.class), root.dependency);
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @Test
+    public void cancelled() throws Exception {
+        Executor idle = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        };
+        Future<Wide> future = Feather.with(new BlockingModule(new CyclicBarrier(3))).instanceAsync(Wide.class, idle);
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+        try {
+            future.get();
+            fail();
+        } catch (CancellationException e) {
+            // expected
+        }
+    }
+
+    @RequestScoped
+    public static class RequestDependency {
+    }
+
+    public static class RequestRoot {
+        private final RequestDependency dependency;
+
+        @Inject
+        public RequestRoot(RequestDependency dependency) {
+            this.dependency = dependency;
+        }
+    }
+
+    public static class Wide {
+        private final String a;
+        private final String b;
+        private final String c;
+
+        @Inject
+        public Wide(@Named("a") String a, @Named("b") String b, @Named("c") String c) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+    }
+
+    public static class BlockingModule {
+        private final CyclicBarrier barrier;
+
+        BlockingModule(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Provides
+        @Named("a")
+        String a() throws Exception {
+            return await("a");
+        }
+
+        @Provides
+        @Named("b")
+        String b() throws Exception {
+            return await("b");
+        }
+
+        @Provides
+        @Named("c")
+        String c() throws Exception {
+            return await("c");
+        }
+
+        private String await(String value) throws Exception {
+            barrier.await(10, TimeUnit.SECONDS);
+            return value;
+        }
+    }
+
+    @Singleton
+    public static class Shared {
+        private static final AtomicInteger instances = new AtomicInteger();
+
+        public Shared() {
+            instances.incrementAndGet();
+        }
+    }
+
+    public static class Side {
+        private final Shared shared;
+
+        @Inject
+        public Side(Shared shared) {
+            this.shared = shared;
+        }
+    }
+
+    public static class Diamond {
+        private final Side left;
+        private final Side right;
+
+        @Inject
+        public Diamond(Side left, Side right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    public static class WithProvider {
+        private final Provider<Shared> shared;
+
+        @Inject
+        public WithProvider(Provider<Shared> shared) {
+            this.shared = shared;
+        }
+    }
+
+    public interface Unbound {
+    }
+
+    public static class FailingModule {
+        @Provides
+        @Named("failing")
+        String failing() {
+            throw new IllegalStateException("failing");
+        }
+    }
+}
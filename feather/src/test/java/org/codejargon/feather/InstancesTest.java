@@ -0,0 +1,107 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class InstancesTest {
+    @Test
+    public void instances() {
+        Feather feather = Feather.with();
+        List<Handler> handlers = feather.instances(Handler.class, 100);
+        assertEquals(100, handlers.size());
+        assertEquals(100, new HashSet<>(handlers).size());
+        for (Handler handler : handlers.subList(1, handlers.size())) {
+            assertSame(handlers.get(0).shared, handler.shared);
+            assertNotSame(handlers.get(0).codec, handler.codec);
+            assertNotNull(handler.connection.get());
+        }
+        assertSame(feather.instance(Shared.class), handlers.get(0).shared);
+    }
+
+    @Test
+    public void fill() {
+        Feather feather = Feather.with();
+        Handler[] handlers = new Handler[10];
+        feather.fill(Handler.class, handlers);
+        for (Handler handler : handlers) {
+            assertNotNull(handler);
+        }
+    }
+
+    @Test
+    public void singletonFilled() {
+        Feather feather = Feather.with();
+        Shared[] shared = new Shared[3];
+        feather.fill(Shared.class, shared);
+        assertSame(shared[0], shared[2]);
+    }
+
+    @Test
+    public void providerMethod() {
+        final AtomicInteger counter = new AtomicInteger();
+        Feather feather = Feather.with(new Object() {
+            @Provides
+            @Named("id")
+            Integer id(Shared shared) {
+                return counter.incrementAndGet();
+            }
+        });
+        assertEquals(5, new HashSet<>(feather.instances(Key.of(Integer.class, "id"), 5)).size());
+    }
+
+    @Test
+    public void listenerNotifiedPerInstance() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.instances(Handler.class, 7);
+        assertEquals(7, metrics.count(Key.of(Handler.class)));
+    }
+
+    @Test
+    public void none() {
+        assertTrue(Feather.with().instances(Handler.class, 0).isEmpty());
+    }
+
+    @Test(expected = FeatherException.class)
+    public void failure() {
+        Feather.with().instances(Failing.class, 2);
+    }
+
+    @Singleton
+    public static class Shared {
+    }
+
+    public static class Codec {
+    }
+
+    public static class Connection {
+    }
+
+    public static class Handler {
+        final Shared shared;
+        final Codec codec;
+        final Provider<Connection> connection;
+
+        @Inject
+        public Handler(Shared shared, Codec codec, Provider<Connection> connection) {
+            this.shared = shared;
+            this.codec = codec;
+            this.connection = connection;
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException();
+        }
+    }
+}
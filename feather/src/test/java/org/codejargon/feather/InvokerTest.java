@@ -0,0 +1,135 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Provider;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+
+public class InvokerTest {
+    @Test
+    public void constructorsInvokedWithEveryArity() throws Throwable {
+        for (int arity = 0; arity <= 6; ++arity) {
+            Constructor<?> constructor = Sum.class.getDeclaredConstructor(parameterTypes(arity));
+            assertEquals(expectedSum(arity), ((Sum) MethodHandleInvoker.of(constructor).invoke(arguments(arity))).value);
+            assertEquals(expectedSum(arity), ((Sum) new Invoker.ConstructorInvoker(constructor).invoke(arguments(arity))).value);
+        }
+    }
+
+    @Test
+    public void methodsInvokedWithEveryArity() throws Throwable {
+        Module module = new Module();
+        for (int arity = 0; arity <= 6; ++arity) {
+            Method method = Module.class.getDeclaredMethod("sum", parameterTypes(arity));
+            method.setAccessible(true);
+            assertEquals(expectedSum(arity), MethodHandleInvoker.of(module, method).invoke(arguments(arity)));
+            assertEquals(expectedSum(arity), new Invoker.MethodInvoker(module, method).invoke(arguments(arity)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exceptionPropagatedUnwrapped() throws Throwable {
+        Invoker.of(Failing.class.getDeclaredConstructor()).invoke(new Provider<?>[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void reflectionExceptionPropagatedUnwrapped() throws Throwable {
+        new Invoker.ConstructorInvoker(Failing.class.getDeclaredConstructor()).invoke(new Provider<?>[0]);
+    }
+
+    private static Class<?>[] parameterTypes(int arity) {
+        Class<?>[] types = new Class<?>[arity];
+        for (int i = 0; i < arity; ++i) {
+            types[i] = Integer.class;
+        }
+        return types;
+    }
+
+    private static Provider<?>[] arguments(int arity) {
+        Provider<?>[] arguments = new Provider<?>[arity];
+        for (int i = 0; i < arity; ++i) {
+            final int value = i + 1;
+            arguments[i] = new Provider<Integer>() {
+                @Override
+                public Integer get() {
+                    return value;
+                }
+            };
+        }
+        return arguments;
+    }
+
+    private static int expectedSum(int arity) {
+        return arity * (arity + 1) / 2;
+    }
+
+    public static class Sum {
+        final int value;
+
+        Sum() {
+            this(0);
+        }
+
+        Sum(Integer a) {
+            this.value = a;
+        }
+
+        Sum(Integer a, Integer b) {
+            this(a + b);
+        }
+
+        Sum(Integer a, Integer b, Integer c) {
+            this(a + b + c);
+        }
+
+        Sum(Integer a, Integer b, Integer c, Integer d) {
+            this(a + b + c + d);
+        }
+
+        Sum(Integer a, Integer b, Integer c, Integer d, Integer e) {
+            this(a + b + c + d + e);
+        }
+
+        Sum(Integer a, Integer b, Integer c, Integer d, Integer e, Integer f) {
+            this(a + b + c + d + e + f);
+        }
+    }
+
+    public static class Module {
+        Integer sum() {
+            return 0;
+        }
+
+        Integer sum(Integer a) {
+            return a;
+        }
+
+        Integer sum(Integer a, Integer b) {
+            return a + b;
+        }
+
+        Integer sum(Integer a, Integer b, Integer c) {
+            return a + b + c;
+        }
+
+        Integer sum(Integer a, Integer b, Integer c, Integer d) {
+            return a + b + c + d;
+        }
+
+        Integer sum(Integer a, Integer b, Integer c, Integer d, Integer e) {
+            return a + b + c + d + e;
+        }
+
+        Integer sum(Integer a, Integer b, Integer c, Integer d, Integer e, Integer f) {
+            return a + b + c + d + e + f;
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Named;
+import javax.inject.Qualifier;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.*;
+
+public class KeyTest {
+    @Test
+    public void interned() {
+        assertSame(Key.of(String.class), Key.of(String.class));
+        assertSame(Key.of(String.class, "name"), Key.of(String.class, "name"));
+        assertSame(Key.of(String.class, Named.class), Key.of(String.class, Named.class));
+    }
+
+    @Test
+    public void distinct() {
+        assertNotEquals(Key.of(String.class), Key.of(String.class, "name"));
+        assertNotEquals(Key.of(String.class, "name"), Key.of(String.class, "other"));
+        assertNotEquals(Key.of(String.class, "name"), Key.of(Integer.class, "name"));
+        assertNotEquals(Key.of(String.class, Named.class), Key.of(String.class, "name"));
+    }
+
+    @Test
+    public void nullQualifier() {
+        assertSame(Key.of(String.class), Key.of(String.class, (Class<Named>) null));
+        assertEquals(Key.of(String.class, Named.class), Key.of(String.class, (String) null));
+        assertNotEquals(Key.of(String.class), Key.of(String.class, (String) null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void qualifiersOfOtherLoadersNotInterned() throws Exception {
+        URL classes = KeyTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader plugin = new URLClassLoader(new URL[]{classes}, null)) {
+            Class<? extends Annotation> qualifier = (Class<? extends Annotation>) plugin.loadClass(PluginQualifier.class.getName());
+            assertNotSame(Key.of(KeyTest.class, qualifier), Key.of(KeyTest.class, qualifier));
+            assertEquals(Key.of(KeyTest.class, qualifier), Key.of(KeyTest.class, qualifier));
+        }
+        assertSame(Key.of(KeyTest.class, PluginQualifier.class), Key.of(KeyTest.class, PluginQualifier.class));
+    }
+
+    @Test
+    public void namesBeyondInternedOnesEqual() {
+        for (int i = 0; i < 1000; ++i) {
+            Key<Integer> key = Key.of(Integer.class, "name" + i);
+            assertEquals(key, Key.of(Integer.class, "name" + i));
+            assertEquals(key.hashCode(), Key.of(Integer.class, "name" + i).hashCode());
+        }
+        assertSame(Key.of(Integer.class, "name0"), Key.of(Integer.class, "name0"));
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface PluginQualifier {
+    }
+}
@@ -0,0 +1,138 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LazyInjectionTest {
+    @Test
+    public void createdOnFirstGet() {
+        Feather feather = Feather.with();
+        int created = Counted.created.get();
+        A a = feather.instance(A.class);
+        assertEquals(created, Counted.created.get());
+        Counted counted = a.lazy.get();
+        assertEquals(created + 1, Counted.created.get());
+        assertSame(counted, a.lazy.get());
+        assertEquals(created + 1, Counted.created.get());
+    }
+
+    @Test
+    public void createdOncePerInjection() {
+        Feather feather = Feather.with();
+        A a1 = feather.instance(A.class);
+        A a2 = feather.instance(A.class);
+        assertNotSame(a1.lazy.get(), a2.lazy.get());
+    }
+
+    @Test
+    public void fieldInjected() {
+        Feather feather = Feather.with();
+        Target target = new Target();
+        feather.injectFields(target);
+        assertSame(target.lazy.get(), target.lazy.get());
+    }
+
+    @Test
+    public void providerMethodParameter() {
+        Feather feather = Feather.with(new Object() {
+            @Provides
+            String string(Lazy<Counted> counted) {
+                return counted.get() == counted.get() ? "same" : "different";
+            }
+        });
+        assertEquals("same", feather.instance(String.class));
+    }
+
+    @Test
+    public void closesCycle() {
+        Feather feather = Feather.with();
+        Circle1 circle1 = feather.instance(Circle1.class);
+        assertNotNull(circle1.circle2.circle1.get());
+    }
+
+    @Test
+    public void providerLinkedDirectly() {
+        Feather feather = Feather.with();
+        Provider<Counted> linked = feather.provider(Counted.class);
+        Provider<Counted> injected = feather.instance(P.class).provider;
+        assertSame(linked, injected);
+    }
+
+    @Test
+    public void concurrentFirstGetCreatesOnce() throws Exception {
+        Feather feather = Feather.with();
+        final A a = feather.instance(A.class);
+        final Counted[] seen = new Counted[8];
+        Thread[] threads = new Thread[seen.length];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    seen[index] = a.lazy.get();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Counted counted : seen) {
+            assertSame(seen[0], counted);
+        }
+    }
+
+    public static class Counted {
+        static final AtomicInteger created = new AtomicInteger();
+
+        public Counted() {
+            created.incrementAndGet();
+        }
+    }
+
+    public static class A {
+        final Lazy<Counted> lazy;
+
+        @Inject
+        public A(Lazy<Counted> lazy) {
+            this.lazy = lazy;
+        }
+    }
+
+    public static class Target {
+        @Inject
+        Lazy<Counted> lazy;
+    }
+
+    public static class P {
+        final Provider<Counted> provider;
+
+        @Inject
+        public P(Provider<Counted> provider) {
+            this.provider = provider;
+        }
+    }
+
+    public static class Circle1 {
+        final Circle2 circle2;
+
+        @Inject
+        public Circle1(Circle2 circle2) {
+            this.circle2 = circle2;
+        }
+    }
+
+    public static class Circle2 {
+        final Lazy<Circle1> circle1;
+
+        @Inject
+        public Circle2(Lazy<Circle1> circle1) {
+            this.circle1 = circle1;
+        }
+    }
+}
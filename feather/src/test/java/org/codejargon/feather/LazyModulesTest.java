@@ -0,0 +1,101 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import static org.junit.Assert.*;
+
+public class LazyModulesTest {
+    @Test
+    public void usedBindingsResolved() {
+        Feather feather = Feather.builder().modules(new Module()).lazy().build();
+        assertEquals("greeting", feather.instance(Key.of(String.class, "greeting")));
+        assertEquals("hello greeting", feather.instance(Key.of(String.class, "hello")));
+        assertSame(feather.instance(Counter.class), feather.instance(Counter.class));
+    }
+
+    @Test
+    public void unusedBindingsNotAnalyzed() {
+        Feather feather = Feather.builder().modules(new Module(), new BrokenModule()).lazy().build();
+        assertEquals("greeting", feather.instance(Key.of(String.class, "greeting")));
+    }
+
+    @Test(expected = FeatherException.class)
+    public void validateReportsUnusedBindings() {
+        Feather.builder().modules(new Module(), new UnboundModule()).lazy().build().validate();
+    }
+
+    @Test(expected = FeatherException.class)
+    public void duplicatesReported() {
+        Feather.builder().modules(new Module(), new Module()).lazy().build();
+    }
+
+    @Test
+    public void childOverridesLazyParent() {
+        Feather parent = Feather.builder().modules(new Module()).lazy().build();
+        Feather child = parent.child(new Override());
+        assertEquals("hello child", child.instance(Key.of(String.class, "hello")));
+        assertEquals("hello greeting", parent.instance(Key.of(String.class, "hello")));
+    }
+
+    @Test
+    public void frozen() {
+        Feather feather = Feather.builder().modules(new Module()).lazy().build();
+        feather.freeze();
+        assertEquals("hello greeting", feather.instance(Key.of(String.class, "hello")));
+    }
+
+    public static class Counter {
+    }
+
+    public interface Unbound {
+    }
+
+    public static class Module {
+        @Provides
+        @Named("greeting")
+        String greeting() {
+            return "greeting";
+        }
+
+        @Provides
+        @Named("hello")
+        String hello(@Named("greeting") String greeting) {
+            return "hello " + greeting;
+        }
+
+        @Provides
+        @Singleton
+        Counter counter() {
+            return new Counter();
+        }
+    }
+
+    public static class BrokenModule {
+        @Provides
+        @Named("broken")
+        @SuppressWarnings("rawtypes")
+        String broken(Provider raw) {
+            return "broken";
+        }
+    }
+
+    public static class UnboundModule {
+        @Provides
+        @Named("unbound")
+        String unbound(Unbound unbound) {
+            return "unbound";
+        }
+    }
+
+    public static class Override {
+        @Provides
+        @Named("greeting")
+        String greeting() {
+            return "child";
+        }
+    }
+}
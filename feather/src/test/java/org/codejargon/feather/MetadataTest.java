@@ -0,0 +1,101 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MetadataTest {
+    private final AtomicInteger computed = new AtomicInteger();
+    private final ClassCache<String> counting = new ClassCache<String>() {
+        @Override
+        String compute(Class<?> type) {
+            computed.incrementAndGet();
+            return type == A.class ? type.getName() : null;
+        }
+    };
+
+    @Test
+    public void sharedAcrossInjectors() {
+        Feather.with(new Module()).instance(A.class);
+        Metadata.Injectable<?> constructor = Metadata.constructor(Key.of(A.class));
+        Feather.with(new Module()).instance(A.class);
+        assertSame(constructor, Metadata.constructor(Key.of(A.class)));
+        assertSame(Metadata.providers(new Module()), Metadata.providers(new Module()));
+        assertSame(Metadata.fieldInjector(Target.class), Metadata.fieldInjector(Target.class));
+    }
+
+    @Test
+    public void providerMethodsScanned() {
+        Metadata.Injectable<?> provider = Metadata.providers(new Module()).get(0);
+        assertEquals(Key.of(String.class, "greeting"), provider.key);
+        assertArrayEquals(new Key<?>[]{Key.of(B.class)}, provider.dependencies);
+    }
+
+    @Test
+    public void errorsNotCached() {
+        for (int i = 0; i < 2; ++i) {
+            try {
+                Metadata.constructor(Key.of(MultipleConstructors.class));
+                fail();
+            } catch (FeatherException e) {
+                assertTrue(e.getMessage().contains("multiple @Inject constructors"));
+            }
+        }
+    }
+
+    @Test
+    public void classValueStorage() {
+        storage(new ClassCache.ClassValueStorage(counting));
+    }
+
+    @Test
+    public void weakStorage() {
+        storage(new ClassCache.WeakStorage(counting));
+    }
+
+    private void storage(ClassCache.Storage storage) {
+        computed.set(0);
+        assertEquals(A.class.getName(), storage.get(A.class));
+        assertEquals(A.class.getName(), storage.get(A.class));
+        assertNull(storage.get(B.class));
+        assertNull(storage.get(B.class));
+        assertEquals(2, computed.get());
+    }
+
+    public static class A {
+        @Inject
+        public A(B b) {
+        }
+    }
+
+    public static class B {
+
+    }
+
+    public static class Target {
+        @Inject
+        B b;
+    }
+
+    public static class MultipleConstructors {
+        @Inject
+        public MultipleConstructors() {
+        }
+
+        @Inject
+        public MultipleConstructors(B b) {
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Named("greeting")
+        String greeting(B b) {
+            return "hi";
+        }
+    }
+}
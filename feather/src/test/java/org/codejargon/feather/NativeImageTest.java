@@ -0,0 +1,112 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NativeImageTest {
+    @Test
+    public void configCoversTracedRun() {
+        List<Object> modules = Arrays.<Object>asList(new Module());
+        String config = NativeImage.reflectConfig(modules, Root.class, Target.class);
+
+        Feather traced = Feather.with(modules);
+        traced.instance(Root.class);
+        traced.injectFields(new Target());
+        traced.instance(Root.class).lazy.get();
+        for (Binding binding : traced.ownBindings()) {
+            if (binding.source instanceof Constructor) {
+                Constructor<?> constructor = (Constructor<?>) binding.source;
+                assertTrue(binding.key.toString(), config.contains("\"name\": \"" + constructor.getDeclaringClass().getName() + "\",\n    \"queryAllDeclaredConstructors\": true"));
+            } else if (binding.source instanceof Method) {
+                Method method = (Method) binding.source;
+                assertTrue(binding.key.toString(), config.contains("{\"name\": \"" + method.getName() + "\", \"parameterTypes\": ["));
+            }
+        }
+        assertTrue(config.contains("\"name\": \"" + Module.class.getName() + "\",\n    \"queryAllDeclaredMethods\": true"));
+        assertTrue(config.contains("{\"name\": \"dependency\", \"allowWrite\": true}"));
+        assertTrue(config.contains("{\"name\": \"<init>\", \"parameterTypes\": [\"" + Dependency.class.getName() + "\", \"javax.inject.Provider\"]}"));
+        assertTrue(config.contains("{\"name\": \"joined\", \"parameterTypes\": [\"java.lang.String[]\"]}"));
+        assertFalse(config.contains(Unused.class.getName()));
+    }
+
+    @Test
+    public void rootWithConstructorAndFields() {
+        String config = NativeImage.reflectConfig(Arrays.<Object>asList(new Module()), Mixed.class);
+        assertTrue(config.contains("\"name\": \"" + Mixed.class.getName() + "\",\n    \"queryAllDeclaredConstructors\": true"));
+        assertTrue(config.contains("{\"name\": \"<init>\", \"parameterTypes\": [\"" + Root.class.getName() + "\"]}"));
+        assertTrue(config.contains("{\"name\": \"<init>\", \"parameterTypes\": [\"" + Dependency.class.getName() + "\", \"javax.inject.Provider\"]}"));
+        assertTrue(config.contains("{\"name\": \"joined\", \"allowWrite\": true}"));
+        assertTrue(config.contains("{\"name\": \"joined\", \"parameterTypes\": [\"java.lang.String[]\"]}"));
+    }
+
+    @Test
+    public void prelinkWithoutInstances() {
+        Feather feather = Feather.with(new Module());
+        NativeImage.prelink(feather, Root.class);
+        assertNotNull(feather.instance(Root.class));
+    }
+
+    @Test(expected = FeatherException.class)
+    public void prelinkRejectsInitializedSingletons() {
+        Feather feather = Feather.with(new Module());
+        feather.instance(Single.class);
+        NativeImage.prelink(feather, Root.class);
+    }
+
+    public static class Dependency {
+    }
+
+    @Singleton
+    public static class Single {
+    }
+
+    public static class Unused {
+    }
+
+    public static class Root {
+        private final Provider<Single> lazy;
+
+        @Inject
+        public Root(Dependency dependency, Provider<Single> lazy) {
+            this.lazy = lazy;
+        }
+    }
+
+    public static class Target {
+        @Inject
+        Dependency dependency;
+        @Inject
+        @Named("joined")
+        String joined;
+    }
+
+    public static class Mixed extends Target {
+        @Inject
+        public Mixed(Root root) {
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Named("names")
+        String[] names() {
+            return new String[]{"a", "b"};
+        }
+
+        @Provides
+        @Named("joined")
+        String joined(@Named("names") String[] names) {
+            return names[0] + names[1];
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.codejargon.feather;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ParallelModulesTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void modulesScannedConcurrently() {
+        List<Object> modules = new ArrayList<>();
+        modules.add(new First());
+        modules.add(new Second());
+        modules.add(new Overriding());
+        Feather feather = Feather.builder().modules(modules).parallel(executor).build();
+        assertEquals("first", feather.instance(Key.of(String.class, "first")));
+        assertEquals("second first", feather.instance(Key.of(String.class, "second")));
+        assertEquals("overridden", feather.instance(Key.of(String.class, "base")));
+    }
+
+    @Test
+    public void duplicatesReportedInModuleOrder() {
+        String serial = failure(Feather.builder().modules(new First(), new Second(), new Duplicate()));
+        String parallel = failure(Feather.builder().modules(new First(), new Second(), new Duplicate()).parallel(executor));
+        assertEquals(serial, parallel);
+        assertTrue(parallel.contains(Duplicate.class.getName()));
+    }
+
+    @Test(expected = FeatherException.class)
+    public void moduleClassReported() {
+        Feather.builder().modules(new First(), First.class).parallel(executor).build();
+    }
+
+    private static String failure(Feather.Builder builder) {
+        try {
+            builder.build();
+        } catch (FeatherException e) {
+            return e.getMessage();
+        }
+        throw new AssertionError("Duplicate binding not reported");
+    }
+
+    public static class First {
+        @Provides
+        @Named("first")
+        String first() {
+            return "first";
+        }
+    }
+
+    public static class Second {
+        @Provides
+        @Named("second")
+        String second(@Named("first") String first) {
+            return "second " + first;
+        }
+    }
+
+    public static class Duplicate {
+        @Provides
+        @Named("first")
+        String first() {
+            return "duplicate";
+        }
+    }
+
+    public static class Base {
+        @Provides
+        @Named("base")
+        String base() {
+            return "base";
+        }
+    }
+
+    public static class Overriding extends Base {
+        @Override
+        @Provides
+        @Named("base")
+        String base() {
+            return "overridden";
+        }
+    }
+}
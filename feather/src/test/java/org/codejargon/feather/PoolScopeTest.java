@@ -0,0 +1,256 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Named;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PoolScopeTest {
+    @Test
+    public void releasedInstanceReused() {
+        PoolScope pools = new PoolScope(4);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Pool<Parser> parsers = PoolScope.pool(feather.provider(Parser.class));
+        Parser parser = parsers.get();
+        parsers.release(parser);
+        assertSame(parser, parsers.get());
+        assertEquals(1, parsers.hits());
+        assertEquals(1, parsers.misses());
+    }
+
+    @Test
+    public void borrowedInstancesDistinct() {
+        PoolScope pools = new PoolScope(4);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        assertNotSame(feather.instance(Parser.class), feather.instance(Parser.class));
+        assertEquals(2, pools.pool(Key.of(Parser.class)).misses());
+    }
+
+    @Test
+    public void leaseReleasedOnClose() {
+        PoolScope pools = new PoolScope(1);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Pool<Parser> parsers = PoolScope.pool(feather.provider(Parser.class));
+        Parser first;
+        try (PoolScope.Lease<Parser> parser = parsers.lease()) {
+            first = parser.get();
+            assertEquals(0, parsers.available());
+        }
+        assertEquals(1, parsers.available());
+        try (PoolScope.Lease<Parser> parser = parsers.lease()) {
+            assertSame(first, parser.get());
+        }
+    }
+
+    @Test(expected = FeatherException.class)
+    public void closedLease() {
+        PoolScope pools = new PoolScope(1);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Lease<Parser> parser = PoolScope.pool(feather.provider(Parser.class)).lease();
+        parser.close();
+        parser.get();
+    }
+
+    @Test
+    public void providerMethodPooled() {
+        PoolScope pools = new PoolScope(2);
+        Feather feather = Feather.builder().modules(new Module()).scope(Pooled.class, pools).build();
+        PoolScope.Pool<StringBuilder> buffers = pools.pool(Key.of(StringBuilder.class, "buffer"));
+        assertSame(buffers, feather.provider(Key.of(StringBuilder.class, "buffer")));
+        StringBuilder buffer = buffers.get();
+        buffers.release(buffer);
+        assertSame(buffer, buffers.get());
+    }
+
+    @Test(expected = FeatherException.class)
+    public void notPooled() {
+        PoolScope.pool(Feather.with().provider(String.class));
+    }
+
+    @Test
+    public void exhaustedPoolWaits() throws Exception {
+        PoolScope pools = new PoolScope(1);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        final PoolScope.Pool<Parser> parsers = PoolScope.pool(feather.provider(Parser.class));
+        final Parser borrowed = parsers.get();
+        final Parser[] next = new Parser[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                next[0] = parsers.get();
+            }
+        });
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        parsers.release(borrowed);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertSame(borrowed, next[0]);
+        assertEquals(1, parsers.waits());
+        assertTrue(parsers.waitNanos() > 0);
+    }
+
+    @Test
+    public void exhaustedPoolFailsAfterTimeout() {
+        PoolScope pools = new PoolScope(2, 10, TimeUnit.MILLISECONDS);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Pool<Parser> parsers = PoolScope.pool(feather.provider(Parser.class));
+        parsers.get();
+        parsers.get();
+        try {
+            parsers.get();
+            fail();
+        } catch (FeatherException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("exhausted"));
+        }
+        assertEquals(1, parsers.waits());
+    }
+
+    @Test
+    public void directInjectionRejected() {
+        PoolScope pools = new PoolScope(2);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        try {
+            feather.instance(Holder.class);
+            fail();
+        } catch (FeatherException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("pooled"));
+        }
+        try {
+            feather.injectFields(new FieldHolder());
+            fail();
+        } catch (FeatherException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("pooled"));
+        }
+        assertEquals(2, PoolScope.pool(feather.provider(Parser.class)).available());
+    }
+
+    @Test
+    public void nullInstanceNotBorrowed() {
+        PoolScope pools = new PoolScope(1);
+        Feather feather = Feather.builder().modules(new Module()).scope(Pooled.class, pools).build();
+        PoolScope.Pool<String> missing = PoolScope.pool(feather.provider(Key.of(String.class, "missing")));
+        assertNull(missing.get());
+        assertNull(missing.get());
+        assertEquals(1, missing.available());
+    }
+
+    @Test
+    public void interruptedWait() {
+        PoolScope pools = new PoolScope(1);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Pool<Parser> parsers = PoolScope.pool(feather.provider(Parser.class));
+        parsers.get();
+        Thread.currentThread().interrupt();
+        try {
+            parsers.get();
+            fail();
+        } catch (FeatherException e) {
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void releaseOfUnborrowedRejected() {
+        PoolScope pools = new PoolScope(2);
+        Feather feather = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Pool<Parser> parsers = PoolScope.pool(feather.provider(Parser.class));
+        Parser parser = parsers.get();
+        parsers.release(parser);
+        try {
+            parsers.release(parser);
+            fail();
+        } catch (FeatherException e) {
+            // released twice
+        }
+        try {
+            parsers.release(new Parser());
+            fail();
+        } catch (FeatherException e) {
+            // not borrowed
+        }
+        assertEquals(2, parsers.available());
+    }
+
+    @Test
+    public void poolSharedByChildren() {
+        PoolScope pools = new PoolScope(2);
+        Feather parent = Feather.builder().scope(Pooled.class, pools).build();
+        PoolScope.Pool<Parser> parsers = PoolScope.pool(parent.provider(Parser.class));
+        Feather child = parent.child();
+        assertSame(parsers, child.provider(Parser.class));
+        assertSame(parsers, pools.pool(Key.of(Parser.class)));
+    }
+
+    @Test
+    public void childOverridingDependencyGetsOwnPool() {
+        PoolScope pools = new PoolScope(2);
+        Feather parent = Feather.builder().modules(new CharsetModule("UTF-8")).scope(Pooled.class, pools).build();
+        Feather child = parent.child(new CharsetModule("US-ASCII"));
+        Codec childCodec = child.instance(Codec.class);
+        Codec parentCodec = parent.instance(Codec.class);
+        assertEquals("US-ASCII", childCodec.charset);
+        assertEquals("UTF-8", parentCodec.charset);
+        assertNotSame(PoolScope.pool(parent.provider(Codec.class)), PoolScope.pool(child.provider(Codec.class)));
+        PoolScope.pool(child.provider(Codec.class)).release(childCodec);
+        PoolScope.pool(parent.provider(Codec.class)).release(parentCodec);
+    }
+
+    @Pooled
+    public static class Parser {
+    }
+
+    @Pooled
+    public static class Codec {
+        final String charset;
+
+        @javax.inject.Inject
+        public Codec(@Named("charset") String charset) {
+            this.charset = charset;
+        }
+    }
+
+    public static class Holder {
+        @javax.inject.Inject
+        public Holder(Parser parser) {
+        }
+    }
+
+    public static class FieldHolder {
+        @javax.inject.Inject
+        Parser parser;
+    }
+
+    public static class Module {
+        @Provides
+        @Pooled
+        @Named("buffer")
+        StringBuilder buffer() {
+            return new StringBuilder();
+        }
+
+        @Provides
+        @Pooled
+        @Named("missing")
+        String missing() {
+            return null;
+        }
+    }
+
+    public static class CharsetModule {
+        private final String charset;
+
+        CharsetModule(String charset) {
+            this.charset = charset;
+        }
+
+        @Provides
+        @Named("charset")
+        String charset() {
+            return charset;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ProvisionMetricsTest {
+    @Test
+    public void countsInstances() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.instance(A.class);
+        feather.instance(A.class);
+        assertEquals(2, metrics.count(Key.of(A.class)));
+        assertEquals(2, metrics.count(Key.of(B.class)));
+        assertEquals(1, metrics.count(Key.of(S.class)));
+        assertEquals(0, metrics.count(Key.of(Unused.class)));
+    }
+
+    @Test
+    public void countsProvidedInstances() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().modules(new Module()).listener(metrics).build();
+        feather.instance(Key.of(String.class, "greeting"));
+        assertEquals(1, metrics.count(Key.of(String.class, "greeting")));
+        assertEquals(Long.valueOf(1), metrics.getInstanceCounts().get("java.lang.String@\"greeting\""));
+    }
+
+    @Test
+    public void constructionHistogram() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        for (int i = 0; i < 10; ++i) {
+            feather.instance(B.class);
+        }
+        long total = 0;
+        for (long count : metrics.histogram(Key.of(B.class))) {
+            total += count;
+        }
+        assertEquals(10, total);
+        assertTrue(metrics.getConstructionNanos().get(Key.of(B.class).toString()) > 0);
+    }
+
+    @Test
+    public void singletonInitialization() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.instance(S.class);
+        feather.instance(S.class);
+        Map<String, Long> initialization = metrics.getSingletonInitializationNanos();
+        assertEquals(1, initialization.size());
+        assertTrue(initialization.containsKey(Key.of(S.class).toString()));
+    }
+
+    @Test(timeout = 5000)
+    public void singletonWait() throws Exception {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        final Feather feather = Feather.builder().listener(metrics).build();
+        Blocking.entered = new CountDownLatch(1);
+        Blocking.release = new CountDownLatch(1);
+        Thread initializing = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                feather.instance(Blocking.class);
+            }
+        });
+        initializing.start();
+        Blocking.entered.await();
+        Thread waiting = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                feather.instance(Blocking.class);
+            }
+        });
+        waiting.start();
+        while (waiting.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        Blocking.release.countDown();
+        initializing.join();
+        waiting.join();
+        assertTrue(metrics.getSingletonWaitNanos().get(Key.of(Blocking.class).toString()) > 0);
+        assertEquals(1, metrics.count(Key.of(Blocking.class)));
+    }
+
+    @Test
+    public void compiledRootReported() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.compile(A.class);
+        feather.instance(A.class);
+        assertEquals(1, metrics.count(Key.of(A.class)));
+    }
+
+    @Test
+    public void reset() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.instance(B.class);
+        metrics.reset();
+        assertEquals(0, metrics.count(Key.of(B.class)));
+    }
+
+    @Test
+    public void registeredAsMXBean() throws Exception {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather.builder().listener(metrics).build().instance(B.class);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.codejargon.feather:type=ProvisionMetrics,name=test");
+        server.registerMBean(metrics, name);
+        try {
+            assertNotNull(server.getAttribute(name, "InstanceCounts"));
+            assertNotNull(server.getAttribute(name, "ConstructionHistograms"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void oneOffCostsReported() {
+        final List<String> events = new ArrayList<>();
+        ProvisionListener listener = new ProvisionListener() {
+            @Override
+            public void moduleScanned(Class<?> module, int bindings, long nanos) {
+                events.add("module " + module.getSimpleName() + " " + bindings);
+            }
+
+            @Override
+            public void bindingLinked(Key<?> key, long nanos) {
+                events.add("linked " + key);
+            }
+
+            @Override
+            public void fieldsPlanned(Class<?> type, long nanos) {
+                events.add("fields " + type.getSimpleName());
+            }
+
+            @Override
+            public void provisioned(Key<?> key, long nanos) {
+                events.add("provisioned " + key);
+            }
+
+            @Override
+            public boolean listensToInstances() {
+                return false;
+            }
+        };
+        Feather feather = Feather.builder().modules(new Module()).listener(listener).build();
+        assertEquals(Collections.singletonList("module Module 1"), events);
+        feather.instance(A.class);
+        feather.instance(A.class);
+        feather.injectFields(new Target());
+        feather.injectFields(new Target());
+        assertEquals(Arrays.asList(
+                "module Module 1",
+                "linked " + Key.of(B.class),
+                "linked " + Key.of(S.class),
+                "linked " + Key.of(A.class),
+                "fields Target"
+        ), events);
+    }
+
+    @Test
+    public void selfTimeExcludesDependencies() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.instance(SlowDependent.class);
+        feather.instance(SlowSingletonDependent.class);
+        long slow = metrics.selfNanos(Key.of(Slow.class));
+        assertTrue(slow >= 2 * Slow.NANOS);
+        assertEquals(metrics.nanos(Key.of(Slow.class)), slow);
+        for (Class<?> dependent : Arrays.asList(SlowDependent.class, SlowSingletonDependent.class)) {
+            long nanos = metrics.nanos(Key.of(dependent));
+            assertTrue(nanos >= Slow.NANOS);
+            assertTrue(metrics.selfNanos(Key.of(dependent)) <= nanos - Slow.NANOS);
+        }
+        assertTrue(metrics.getSelfConstructionNanos().containsKey(Key.of(Slow.class).toString()));
+    }
+
+    @Test
+    public void selfTimeOfBulkInstancesExcludesDependencies() {
+        ProvisionMetrics metrics = new ProvisionMetrics();
+        Feather feather = Feather.builder().listener(metrics).build();
+        feather.instances(SlowDependent.class, 2);
+        assertEquals(2, metrics.count(Key.of(SlowDependent.class)));
+        assertEquals(2, metrics.count(Key.of(Slow.class)));
+        long nanos = metrics.nanos(Key.of(SlowDependent.class));
+        assertTrue(nanos >= 2 * Slow.NANOS);
+        assertTrue(metrics.selfNanos(Key.of(SlowDependent.class)) <= nanos - 2 * Slow.NANOS);
+    }
+
+    public static class A {
+        @Inject
+        public A(B b, S s) {
+        }
+    }
+
+    public static class B {
+
+    }
+
+    @Singleton
+    public static class S {
+
+    }
+
+    public static class Target {
+        @Inject
+        B b;
+    }
+
+    public static class Unused {
+
+    }
+
+    @Singleton
+    public static class Blocking {
+        static CountDownLatch entered;
+        static CountDownLatch release;
+
+        @Inject
+        public Blocking() throws InterruptedException {
+            entered.countDown();
+            release.await();
+        }
+    }
+
+    public static class Slow {
+        static final long NANOS = 10000000;
+
+        @Inject
+        public Slow() throws InterruptedException {
+            Thread.sleep(NANOS / 1000000);
+        }
+    }
+
+    public static class SlowDependent {
+        @Inject
+        public SlowDependent(Slow slow) {
+        }
+    }
+
+    @Singleton
+    public static class SlowSingletonDependent {
+        @Inject
+        public SlowSingletonDependent(Slow slow) {
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Named("greeting")
+        String greeting() {
+            return "hi";
+        }
+    }
+}
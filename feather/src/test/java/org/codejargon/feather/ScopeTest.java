@@ -0,0 +1,203 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ScopeTest {
+    @Test
+    public void oneInstancePerContext() {
+        ContextScope requests = new ContextScope();
+        Feather feather = Feather.builder().scope(RequestScoped.class, requests).build();
+        requests.enter();
+        RequestObj first;
+        try {
+            first = feather.instance(RequestObj.class);
+            assertSame(first, feather.instance(RequestObj.class));
+            assertSame(first, feather.instance(Handler.class).request);
+        } finally {
+            requests.exit();
+        }
+        requests.enter();
+        try {
+            assertNotSame(first, feather.instance(RequestObj.class));
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @Test
+    public void providerMethodScoped() {
+        ContextScope requests = new ContextScope();
+        Feather feather = Feather.builder().modules(new Module()).scope(RequestScoped.class, requests).build();
+        requests.enter();
+        try {
+            assertSame(feather.instance(Key.of(StringBuilder.class, "buffer")), feather.instance(Key.of(StringBuilder.class, "buffer")));
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @Test
+    public void sessionReentered() {
+        ContextScope sessions = new ContextScope();
+        Feather feather = Feather.builder().scope(SessionScoped.class, sessions).build();
+        ContextScope.Context session = sessions.newContext();
+        sessions.enter(session);
+        SessionObj first;
+        try {
+            first = feather.instance(SessionObj.class);
+        } finally {
+            sessions.exit();
+        }
+        sessions.enter(session);
+        try {
+            assertSame(first, feather.instance(SessionObj.class));
+        } finally {
+            sessions.exit();
+        }
+    }
+
+    @Test
+    public void contextGrowsForBindingsCreatedLater() {
+        ContextScope requests = new ContextScope();
+        Feather feather = Feather.builder().scope(RequestScoped.class, requests).build();
+        requests.enter();
+        try {
+            assertSame(feather.instance(Handler.class).request, feather.instance(RequestObj.class));
+            assertSame(feather.instance(OtherRequestObj.class), feather.instance(OtherRequestObj.class));
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @Test
+    public void childOverridingDependencyGetsOwnInstance() {
+        ContextScope requests = new ContextScope();
+        Feather parent = Feather.builder().modules(new UserModule("parent")).scope(RequestScoped.class, requests).build();
+        Feather child = parent.child(new UserModule("child"));
+        requests.enter();
+        try {
+            RequestUser parentUser = parent.instance(RequestUser.class);
+            RequestUser childUser = child.instance(RequestUser.class);
+            assertEquals("parent", parentUser.name);
+            assertEquals("child", childUser.name);
+            assertSame(parentUser, parent.instance(RequestUser.class));
+            assertSame(childUser, child.instance(RequestUser.class));
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @Test(expected = FeatherException.class)
+    public void outsideContext() {
+        Feather feather = Feather.builder().scope(RequestScoped.class, new ContextScope()).build();
+        feather.instance(RequestObj.class);
+    }
+
+    @Test(expected = FeatherException.class)
+    public void alreadyEntered() {
+        ContextScope requests = new ContextScope();
+        requests.enter();
+        try {
+            requests.enter();
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @Test
+    public void unregisteredScopeIgnored() {
+        Feather feather = Feather.with();
+        assertNotSame(feather.instance(RequestObj.class), feather.instance(RequestObj.class));
+    }
+
+    @Test
+    public void customScope() {
+        final AtomicInteger scoped = new AtomicInteger();
+        Feather feather = Feather.builder().scope(RequestScoped.class, new Scoping() {
+            @Override
+            public <T> javax.inject.Provider<T> scope(Key<T> key, javax.inject.Provider<T> unscoped) {
+                scoped.incrementAndGet();
+                return unscoped;
+            }
+        }).build();
+        feather.instance(RequestObj.class);
+        feather.instance(RequestObj.class);
+        assertEquals(1, scoped.get());
+    }
+
+    @Test
+    public void compiledGraphKeepsScope() {
+        ContextScope requests = new ContextScope();
+        Feather feather = Feather.builder().scope(RequestScoped.class, requests).build();
+        feather.compile(Handler.class);
+        requests.enter();
+        try {
+            assertSame(feather.instance(Handler.class).request, feather.instance(Handler.class).request);
+        } finally {
+            requests.exit();
+        }
+    }
+
+    @RequestScoped
+    public static class RequestObj {
+
+    }
+
+    @RequestScoped
+    public static class OtherRequestObj {
+
+    }
+
+    @SessionScoped
+    public static class SessionObj {
+
+    }
+
+    @RequestScoped
+    public static class RequestUser {
+        final String name;
+
+        @Inject
+        public RequestUser(@Named("user") String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Handler {
+        final RequestObj request;
+
+        @Inject
+        public Handler(RequestObj request) {
+            this.request = request;
+        }
+    }
+
+    public static class Module {
+        @Provides
+        @Named("buffer")
+        @RequestScoped
+        StringBuilder buffer() {
+            return new StringBuilder();
+        }
+    }
+
+    public static class UserModule {
+        private final String user;
+
+        UserModule(String user) {
+            this.user = user;
+        }
+
+        @Provides
+        @Named("user")
+        String user() {
+            return user;
+        }
+    }
+}
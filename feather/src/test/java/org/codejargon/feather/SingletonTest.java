@@ -4,9 +4,11 @@ import org.junit.Test;
 
 import javax.inject.Provider;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.*;
 
 public class SingletonTest {
     @Test
@@ -28,6 +30,49 @@ public class SingletonTest {
         assertEquals(provider.get(), provider.get());
     }
 
+    @Test
+    public void singletonInitializedOnceConcurrently() throws Exception {
+        final Feather feather = Feather.with();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SlowSingleton>> instances = new ArrayList<>();
+            for (int i = 0; i < 32; ++i) {
+                instances.add(executor.submit(new Callable<SlowSingleton>() {
+                    @Override
+                    public SlowSingleton call() {
+                        return feather.instance(SlowSingleton.class);
+                    }
+                }));
+            }
+            for (Future<SlowSingleton> instance : instances) {
+                assertSame(instances.get(0).get(), instance.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void unrelatedSingletonsInitializedConcurrently() throws Exception {
+        final Feather feather = Feather.with();
+        BlockingSingleton.entered = new CountDownLatch(1);
+        BlockingSingleton.release = new CountDownLatch(1);
+        Thread blocked = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                feather.instance(BlockingSingleton.class);
+            }
+        });
+        blocked.start();
+        BlockingSingleton.entered.await();
+        try {
+            assertNotNull(feather.instance(SingletonObj.class));
+        } finally {
+            BlockingSingleton.release.countDown();
+            blocked.join();
+        }
+    }
+
     public static class Plain {
 
     }
@@ -36,4 +81,22 @@ public class SingletonTest {
     public static class SingletonObj {
 
     }
+
+    @Singleton
+    public static class SlowSingleton {
+        public SlowSingleton() throws InterruptedException {
+            Thread.sleep(50);
+        }
+    }
+
+    @Singleton
+    public static class BlockingSingleton {
+        static CountDownLatch entered;
+        static CountDownLatch release;
+
+        public BlockingSingleton() throws InterruptedException {
+            entered.countDown();
+            release.await();
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package org.codejargon.feather;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StartupIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void metadataIndexed() throws Exception {
+        File file = new File(folder.getRoot(), "feather.index");
+        StartupIndex.load(file);
+        Feather feather = Feather.with(new Module());
+        Target target = feather.instance(Target.class);
+        feather.injectFields(target);
+        StartupIndex.save(file);
+        assertTrue(file.isFile());
+
+        StartupIndex.load(file);
+        Metadata.Injectable<Constructor<?>> constructor = StartupIndex.constructor(Target.class);
+        assertEquals(Target.class.getDeclaredConstructor(Dependency.class, Provider.class), constructor.member);
+        assertArrayEquals(new Key<?>[]{Key.of(Dependency.class), Key.of(String.class, "name")}, constructor.dependencies);
+        assertArrayEquals(new boolean[]{false, true}, constructor.providers);
+        assertTrue(constructor.singleton);
+
+        List<Metadata.Injectable<Method>> providers = StartupIndex.providers(Module.class);
+        assertEquals(2, providers.size());
+        for (Metadata.Injectable<Method> provider : providers) {
+            assertEquals(provider.member.getName().equals("name") ? Key.of(String.class, "name") : Key.of(Dependency.class, Qualified.class), provider.key);
+            assertEquals(Module.class.getDeclaredMethod(provider.member.getName(), provider.member.getParameterTypes()), provider.member);
+        }
+
+        Metadata.InjectedFields injected = StartupIndex.fieldInjector(Target.class);
+        assertArrayEquals(new boolean[]{false, true}, injected.lazy);
+        FieldInjector<Object> fields = injected.injector;
+        assertArrayEquals(new Key<?>[]{Key.of(Dependency.class, Qualified.class), Key.of(Dependency.class)}, fields.dependencies());
+        Target uninjected = new Target(null, null);
+        Provider<Lazy<Dependency>> lazy = new Provider<Lazy<Dependency>>() {
+            @Override
+            public Lazy<Dependency> get() {
+                return null;
+            }
+        };
+        fields.inject(uninjected, new Provider<?>[]{Feather.with().provider(Dependency.class), lazy});
+        assertNotNull(uninjected.field);
+    }
+
+    @Test
+    public void missingGeneratedClassIndexed() throws Exception {
+        File file = new File(folder.getRoot(), "feather.index");
+        StartupIndex.load(file);
+        assertNull(Generated.factory(Unindexed.class));
+        StartupIndex.save(file);
+
+        StartupIndex.load(file);
+        assertTrue(StartupIndex.notGenerated(Unindexed.class, Generated.FACTORY));
+        assertFalse(StartupIndex.notGenerated(Unindexed.class, Generated.INJECTOR));
+        assertNull(Generated.factory(Unindexed.class));
+    }
+
+    @Test
+    public void loadedIndexReplaced() throws Exception {
+        File file = new File(folder.getRoot(), "feather.index");
+        StartupIndex.load(file);
+        Generated.factory(Dependency.class);
+        StartupIndex.save(file);
+        StartupIndex.load(file);
+        Generated.factory(Unindexed.class);
+        StartupIndex.save(file);
+        StartupIndex.load(file);
+        assertTrue(StartupIndex.notGenerated(Dependency.class, Generated.FACTORY));
+        assertTrue(StartupIndex.notGenerated(Unindexed.class, Generated.FACTORY));
+    }
+
+    @Test
+    public void missingEntry() throws Exception {
+        File file = new File(folder.getRoot(), "feather.index");
+        StartupIndex.load(file);
+        StartupIndex.save(file);
+        StartupIndex.load(file);
+        assertNull(StartupIndex.constructor(Dependency.class));
+    }
+
+    @Test
+    public void corruptIndexIgnored() throws Exception {
+        File file = folder.newFile("feather.index");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+        StartupIndex.load(file);
+        assertNotNull(Feather.with().instance(Unindexed.class));
+        assertNull(StartupIndex.constructor(Unindexed.class));
+    }
+
+    public static class Dependency {
+    }
+
+    public static class Unindexed {
+    }
+
+    @Singleton
+    public static class Target {
+        private final Provider<String> name;
+        @Inject
+        @Qualified
+        private Dependency field;
+        @Inject
+        private Lazy<Dependency> lazy;
+
+        @Inject
+        Target(Dependency dependency, @Named("name") Provider<String> name) {
+            this.name = name;
+        }
+    }
+
+    @javax.inject.Qualifier
+    @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+    public @interface Qualified {
+    }
+
+    public static class Module {
+        @Provides
+        @Named("name")
+        String name(Dependency dependency) {
+            return "name";
+        }
+
+        @Provides
+        @Qualified
+        Dependency qualified() {
+            return new Dependency();
+        }
+    }
+}
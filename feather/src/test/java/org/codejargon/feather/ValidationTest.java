@@ -0,0 +1,84 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class ValidationTest {
+    @Test
+    public void validGraph() {
+        Feather feather = Feather.with(new ValidModule());
+        feather.validate();
+        assertNotNull(feather.instance(A.class).b);
+    }
+
+    @Test(expected = FeatherException.class)
+    public void missingBindingReported() {
+        Feather.with(new MissingBindingModule()).validate();
+    }
+
+    @Test(expected = FeatherException.class)
+    public void missingBindingThroughProviderReported() {
+        Feather.with(new MissingProviderBindingModule()).validate();
+    }
+
+    @Test(expected = FeatherException.class)
+    public void circularDependencyReported() {
+        Feather.with(new CircularModule()).validate();
+    }
+
+    @Test
+    public void featherInjected() {
+        Feather feather = Feather.with();
+        assertSame(feather, feather.instance(Feather.class));
+    }
+
+    public static class A {
+        private final B b;
+
+        @Inject
+        public A(B b) {
+            this.b = b;
+        }
+    }
+
+    public static class B {
+
+    }
+
+    interface Unbound {
+
+    }
+
+    public static class ValidModule {
+        @Provides
+        A a(B b) {
+            return new A(b);
+        }
+    }
+
+    public static class MissingBindingModule {
+        @Provides
+        A a(Unbound unbound) {
+            return new A(new B());
+        }
+    }
+
+    public static class MissingProviderBindingModule {
+        @Provides
+        A a(Provider<Unbound> unbound) {
+            return new A(new B());
+        }
+    }
+
+    public static class CircularModule {
+        @Provides
+        A a(CircularDependencyTest.Circle1 circle) {
+            return new A(new B());
+        }
+    }
+}
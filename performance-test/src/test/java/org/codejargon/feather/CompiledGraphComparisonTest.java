@@ -0,0 +1,32 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+/**
+ Measures instantiating a dependency graph through the providers of each binding vs. through a compiled plan.
+ */
+public class CompiledGraphComparisonTest {
+    private static final int warmup = 200000;
+    private static final int iterations = 5000000;
+
+    @Test
+    public void instantiationTime() {
+        Feather feather = Feather.with();
+        Feather compiled = Feather.with();
+        compiled.compile(A.class);
+        for (int i = 0; i < warmup; ++i) {
+            feather.instance(A.class);
+            compiled.instance(A.class);
+        }
+        StopWatch.millis("Feather", () -> {
+            for (int i = 0; i < iterations; ++i) {
+                feather.instance(A.class);
+            }
+        });
+        StopWatch.millis("Feather compiled", () -> {
+            for (int i = 0; i < iterations; ++i) {
+                compiled.instance(A.class);
+            }
+        });
+    }
+}
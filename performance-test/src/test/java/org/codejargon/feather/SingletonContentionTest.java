@@ -0,0 +1,78 @@
+package org.codejargon.feather;
+
+import org.junit.Test;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ Measures singletons accessed concurrently: initialization of unrelated slow singletons, and access of initialized
+ singletons by 1 to 64 threads.
+ */
+public class SingletonContentionTest {
+    private static final int accesses = 10000000;
+    private static final String[] names = {"s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8"};
+
+    @Test
+    public void contention() {
+        Feather cold = Feather.with(new SlowSingletons());
+        StopWatch.millis("Initializing 8 singletons of 100ms each by 8 threads", () -> run(8, thread ->
+                cold.instance(Key.of(Object.class, names[thread]))
+        ));
+        Feather warm = Feather.with(new SlowSingletons());
+        for (String name : names) {
+            warm.instance(Key.of(Object.class, name));
+        }
+        for (int t = 1; t <= 64; t *= 2) {
+            int threads = t;
+            int perThread = accesses / threads;
+            StopWatch.millis(String.format("Accessing singletons %s times by %s threads", accesses, threads), () -> run(threads, thread -> {
+                for (int i = 0; i < perThread; ++i) {
+                    warm.instance(Key.of(Object.class, names[i & 7]));
+                }
+            }));
+        }
+    }
+
+    private static void run(int threads, ThreadTask task) {
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; ++t) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                task.run(thread);
+                done.countDown();
+            });
+            worker.start();
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    interface ThreadTask {
+        void run(int thread);
+    }
+
+    public static class SlowSingletons {
+        @Provides @Singleton @Named("s1") Object s1() { return slow(); }
+        @Provides @Singleton @Named("s2") Object s2() { return slow(); }
+        @Provides @Singleton @Named("s3") Object s3() { return slow(); }
+        @Provides @Singleton @Named("s4") Object s4() { return slow(); }
+        @Provides @Singleton @Named("s5") Object s5() { return slow(); }
+        @Provides @Singleton @Named("s6") Object s6() { return slow(); }
+        @Provides @Singleton @Named("s7") Object s7() { return slow(); }
+        @Provides @Singleton @Named("s8") Object s8() { return slow(); }
+
+        private static Object slow() {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new Object();
+        }
+    }
+}